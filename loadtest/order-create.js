@@ -0,0 +1,54 @@
+// 주문 생성(첨부 파일 포함) + 첨부 파일 상태 조회 부하 테스트 (k6)
+// 플랫폼 스레드 / 가상 스레드 모드의 처리량과 p99 를 같은 조건에서 비교한다.
+//
+//   1. 플랫폼 스레드: VIRTUAL_THREADS=false 로 앱 실행 후
+//      k6 run -e BASE_URL=http://localhost:8080 -e MENU_IDS=1,2,3 --summary-export=platform.json loadtest/order-create.js
+//   2. 가상 스레드:   VIRTUAL_THREADS=true 로 앱 재시작 후 같은 명령 (--summary-export=virtual.json)
+//   3. 두 결과의 http_reqs(rate), http_req_duration p(99), http_req_failed 를 비교
+//
+// 앱 쪽 지표는 /actuator/metrics/order.service, s3.operation, hikaricp.connections.pending 으로 함께 확인한다.
+// (가상 스레드 모드에서는 요청 스레드 수 제한이 없으므로 DB 커넥션 대기가 먼저 늘어나는지 본다)
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MENU_IDS = (__ENV.MENU_IDS || '1').split(',').map(Number);
+const ATTACHMENT_KB = Number(__ENV.ATTACHMENT_KB || 256);
+const MAX_VUS = Number(__ENV.MAX_VUS || 1000);
+
+//첨부 파일은 한 번만 만들어서 재사용
+const attachment = new Uint8Array(ATTACHMENT_KB * 1024).buffer;
+
+export const options = {
+    scenarios: {
+        orders: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: MAX_VUS / 10 },
+                { duration: '1m', target: MAX_VUS },
+                { duration: '2m', target: MAX_VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const request = {
+        customerName: `load-${__VU}`,
+        orderItems: [{ menuId: MENU_IDS[__ITER % MENU_IDS.length], quantity: 1 }],
+    };
+    const created = http.post(`${BASE_URL}/api/orders`, {
+        request: http.file(JSON.stringify(request), 'request.json', 'application/json'),
+        file: http.file(attachment, 'receipt.bin', 'application/octet-stream'),
+    }, { tags: { name: 'create-order' } });
+    check(created, { 'create 200': r => r.status === 200 });
+    if (created.status !== 200) return;
+
+    const orderId = created.json('id');
+    const fetched = http.get(`${BASE_URL}/api/orders/${orderId}/attachment`, { tags: { name: 'get-attachment' } });
+    check(fetched, { 'get 200': r => r.status === 200 });
+}
@@ -0,0 +1,41 @@
+package com.example.smalltest.benchmark;
+
+import com.example.smalltest.SmallTestApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트
+ * 웹 서버 없이 H2 인메모리 DB, 인메모리 객체 저장소(app.storage.engine=memory)로 실제 빈 구성 그대로 띄운다.
+ * application.yml 보다 우선하도록 명령행 인자로 넘기고, SQL 로그는 측정에 섞이지 않도록 끈다.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        SpringApplication application = new SpringApplication(SmallTestApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return application.run(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--spring.h2.console.enabled=false",
+                "--spring.cloud.aws.credentials.access-key=benchmark",
+                "--spring.cloud.aws.credentials.secret-key=benchmark",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--app.storage.engine=memory",
+                "--app.cache.shared.type=none",
+                //측정 중 업로드 대기열이 차서 거절되지 않도록
+                "--app.attachment.upload.capacity=100000",
+                "--app.outbox.relay.enabled=false");
+    }
+}
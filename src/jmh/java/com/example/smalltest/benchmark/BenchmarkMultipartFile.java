@@ -0,0 +1,63 @@
+package com.example.smalltest.benchmark;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * 메모리에 있는 내용으로 만든 업로드 파일 (spring-test 의 MockMultipartFile 대신)
+ */
+final class BenchmarkMultipartFile implements MultipartFile {
+
+    private final String originalFilename;
+    private final byte[] content;
+
+    BenchmarkMultipartFile(String originalFilename, byte[] content) {
+        this.originalFilename = originalFilename;
+        this.content = content;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/octet-stream";
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return content.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return content.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return content;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.write(dest.toPath(), content);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.smalltest.benchmark;
+
+import com.example.smalltest.service.S3PrivateFileService;
+import com.example.smalltest.storage.ObjectDownload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * S3PrivateFileService 업로드/다운로드 처리량 (인메모리 객체 저장소)
+ * 네트워크를 뺀 서비스 경로(키 생성, 스트림 복사, Range/ETag 처리)의 비용을 파일 크기별로 잰다.
+ * 다운로드는 실제 응답처럼 8KB 버퍼로 끝까지 읽는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ObjectStorageBenchmark {
+
+    @Param({"1024", "1048576", "8388608"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private S3PrivateFileService s3PrivateFileService;
+    private BenchmarkMultipartFile file;
+    private String storedKey;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("object-storage");
+        s3PrivateFileService = context.getBean(S3PrivateFileService.class);
+        file = new BenchmarkMultipartFile("photo.jpg", new byte[size]);
+        storedKey = s3PrivateFileService.extractFileNameFromUrl(s3PrivateFileService.uploadToS3Bucket(file));
+    }
+
+    //인메모리 저장소가 측정 중에 계속 커지지 않도록 올린 파일은 바로 지운다 (삭제는 맵에서 빼는 비용뿐)
+    @Benchmark
+    public String upload() throws Exception {
+        String url = s3PrivateFileService.uploadToS3Bucket(file);
+        s3PrivateFileService.deleteFile(url);
+        return url;
+    }
+
+    @Benchmark
+    public long download() throws IOException {
+        ObjectDownload download = s3PrivateFileService.downloadFile(storedKey, null, null);
+        try (InputStream body = download.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public long downloadRange() throws IOException {
+        ObjectDownload download = s3PrivateFileService.downloadFile(storedKey, "bytes=0-1023", null);
+        try (InputStream body = download.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
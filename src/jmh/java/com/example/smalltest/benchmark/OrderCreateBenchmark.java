@@ -0,0 +1,103 @@
+package com.example.smalltest.benchmark;
+
+import com.example.smalltest.domain.Menu;
+import com.example.smalltest.dto.OrderCreateRequest;
+import com.example.smalltest.dto.OrderItemRequest;
+import com.example.smalltest.dto.OrderResponse;
+import com.example.smalltest.repository.MenuRepository;
+import com.example.smalltest.service.AttachmentUploadQueue;
+import com.example.smalltest.service.OrderService;
+import com.example.smalltest.storage.InMemoryObjectStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 생성 (H2 + 인메모리 객체 저장소)
+ * 메뉴 캐시 조회, 주문/항목 INSERT(JDBC 배치), 아웃박스 저장까지 실제 트랜잭션으로 실행한다.
+ * 첨부 파일이 있으면 스풀 파일 복사까지가 요청 경로이고, 저장소 업로드는 백그라운드 대기열에서 진행된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+//업로드된 첨부 파일과 저장한 주문이 쌓이므로 반복을 짧게 하고 반복마다 비운다
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OrderCreateBenchmark {
+
+    @Param({"1", "5"})
+    private int itemCount;
+
+    @Param({"0", "16384"})
+    private int attachmentSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private AttachmentUploadQueue attachmentUploadQueue;
+    private InMemoryObjectStorage objectStorage;
+    private JdbcTemplate jdbcTemplate;
+    private OrderCreateRequest request;
+    private BenchmarkMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("order-create");
+        orderService = context.getBean(OrderService.class);
+        attachmentUploadQueue = context.getBean(AttachmentUploadQueue.class);
+        objectStorage = context.getBean(InMemoryObjectStorage.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        MenuRepository menuRepository = context.getBean(MenuRepository.class);
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            Menu menu = menuRepository.save(Menu.builder().name("메뉴" + i).price(1000 + i * 500).available(true).build());
+            items.add(new OrderItemRequest(menu.getId(), 1));
+        }
+        request = new OrderCreateRequest("홍길동", items);
+        file = attachmentSize == 0 ? null : new BenchmarkMultipartFile("receipt.jpg", new byte[attachmentSize]);
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(request, file);
+    }
+
+    //백그라운드 업로드와 늘어난 테이블/인덱스가 다음 반복 측정에 섞이지 않도록 반복마다 대기열, 저장소, 주문 테이블을 비운다
+    //(업로드가 끝나야 주문의 첨부 상태 UPDATE 도 끝나므로 대기열을 먼저 비운다)
+    @TearDown(Level.Iteration)
+    public void resetIteration() throws InterruptedException {
+        while (attachmentUploadQueue.inFlight() > 0) {
+            Thread.sleep(10);
+        }
+        objectStorage.clear();
+        //H2 는 외래 키가 참조하는 테이블을 TRUNCATE 할 수 없어서 잠시 참조 무결성 검사를 끈다
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            jdbcTemplate.execute("TRUNCATE TABLE order_items");
+            jdbcTemplate.execute("TRUNCATE TABLE outbox_events");
+            jdbcTemplate.execute("TRUNCATE TABLE orders");
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.smalltest.benchmark;
+
+import com.example.smalltest.domain.Menu;
+import com.example.smalltest.domain.Order;
+import com.example.smalltest.dto.OrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 엔티티 -> 응답 DTO 변환 (주문 생성, 조회마다 실행), 주문 항목 수별
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderResponseMappingBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int itemCount;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = Order.builder().customerName("홍길동").build();
+        for (int i = 0; i < itemCount; i++) {
+            Menu menu = Menu.builder().name("메뉴" + i).price(1000 + i * 500).available(true).build();
+            order.addOrderItem(menu, 1 + i % 3);
+        }
+    }
+
+    @Benchmark
+    public OrderResponse from() {
+        return OrderResponse.from(order);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.smalltest.benchmark;
+
+import com.example.smalltest.domain.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상태 전환 검사 (상태 변경, 일괄 상태 변경마다 호출)
+ * 모든 (현재 상태, 다음 상태) 조합을 한 번씩 검사한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderStatusBenchmark {
+
+    private final OrderStatus[] statuses = OrderStatus.values();
+
+    @Benchmark
+    public void canTransitionTo(Blackhole blackhole) {
+        for (OrderStatus from : statuses) {
+            for (OrderStatus to : statuses) {
+                blackhole.consume(from.canTransitionTo(to));
+            }
+        }
+    }
+
+    @Benchmark
+    public void allowedNextStatuses(Blackhole blackhole) {
+        for (OrderStatus status : statuses) {
+            blackhole.consume(status.allowedNextStatuses());
+        }
+    }
+}
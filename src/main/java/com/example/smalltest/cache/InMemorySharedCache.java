@@ -0,0 +1,58 @@
+package com.example.smalltest.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis 없이 공유 캐시를 대신하는 프로세스 내부 구현 (테스트, 로컬 개발용)
+ */
+public class InMemorySharedCache implements SharedCache {
+
+    private record Entry(byte[] value, long expiresAtMillis) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public Map<String, byte[]> getAll(Collection<String> keys) {
+        Map<String, byte[]> result = new HashMap<>();
+        for (String key : keys) {
+            byte[] value = get(key);
+            if (value != null) result.put(key, value);
+        }
+        return result;
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        long expiresAtMillis = ttl == null ? Long.MAX_VALUE : System.currentTimeMillis() + ttl.toMillis();
+        entries.put(key, new Entry(value, expiresAtMillis));
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.smalltest.cache;
+
+import com.example.smalltest.domain.Menu;
+import com.example.smalltest.domain.MenuChangedEvent;
+import com.example.smalltest.repository.MenuRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 메뉴 카탈로그 인메모리 캐시 (read-through)
+ * 메뉴는 주문마다 조회되지만 변경은 드물기 때문에 DB 대신 캐시에서 읽는다.
+ * 인메모리 캐시에 없으면 공유 캐시(Redis) -> DB 순서로 조회한다.
+ * 히트/미스 수는 actuator metrics 의 cache.gets (cache=menuCatalog) 로 노출된다.
+ */
+@Component
+public class MenuCatalogCache {
+
+    public static final String CACHE_NAME = "menuCatalog";
+
+    private static final String SHARED_KEY_PREFIX = "small-test:menu:";
+
+    private final MenuRepository menuRepository;
+    private final SharedCache sharedCache;
+    private final Duration sharedTtl;
+    private final Cache<Long, Menu> cache;
+
+    public MenuCatalogCache(MenuRepository menuRepository,
+                            SharedCache sharedCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.cache.menu.maximum-size:1000}") long maximumSize,
+                            @Value("${app.cache.menu.expire-after-write:10m}") Duration expireAfterWrite,
+                            @Value("${app.cache.shared.menu-ttl:1h}") Duration sharedTtl) {
+        this.menuRepository = menuRepository;
+        this.sharedCache = sharedCache;
+        this.sharedTtl = sharedTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                //다른 인스턴스에서 변경된 메뉴도 일정 시간 후에는 반영되도록
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 여러 메뉴를 한 번에 조회, 캐시에 없는 메뉴만 IN 쿼리 한 번으로 읽어온다.
+     * 존재하지 않는 메뉴는 결과 Map 에 포함되지 않는다.
+     */
+    public Map<Long, Menu> getAll(Collection<Long> menuIds) {
+        return cache.getAll(menuIds, this::load);
+    }
+
+    private Map<Long, Menu> load(Set<? extends Long> missingIds) {
+        Map<Long, Menu> loaded = new HashMap<>();
+
+        //1. 공유 캐시 조회 (MGET 한 번)
+        List<String> keys = missingIds.stream().map(MenuCatalogCache::sharedKey).toList();
+        for (byte[] value : sharedCache.getAll(keys).values()) {
+            Menu menu = MenuCodec.decode(value);
+            if (menu != null) loaded.put(menu.getId(), menu);
+        }
+
+        //2. 공유 캐시에도 없는 메뉴만 DB 에서 조회하고 공유 캐시에 저장
+        Set<Long> dbIds = new LinkedHashSet<>(missingIds);
+        dbIds.removeAll(loaded.keySet());
+        if (!dbIds.isEmpty()) {
+            for (Menu menu : menuRepository.findAllById(dbIds)) {
+                loaded.put(menu.getId(), menu);
+                sharedCache.put(sharedKey(menu.getId()), MenuCodec.encode(menu), sharedTtl);
+            }
+        }
+        return loaded;
+    }
+
+    private static String sharedKey(Long menuId) {
+        return SHARED_KEY_PREFIX + menuId;
+    }
+
+    public void invalidate(Long menuId) {
+        sharedCache.evict(sharedKey(menuId));
+        cache.invalidate(menuId);
+    }
+
+    /**
+     * 이 인스턴스의 인메모리 캐시만 비운다
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    //커밋 이후에 무효화해야 다른 스레드가 변경 전 값을 다시 캐시에 올리지 않는다
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        invalidate(event.menuId());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.smalltest.cache;
+
+import com.example.smalltest.domain.Menu;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 공유 캐시에 저장하는 메뉴 직렬화 형식
+ * [버전(1)][id(8)][name(UTF)][price(4)][available(1)]
+ */
+final class MenuCodec {
+
+    private static final byte VERSION = 1;
+
+    private MenuCodec() {
+    }
+
+    static byte[] encode(Menu menu) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + menu.getName().length() * 3);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(menu.getId());
+            out.writeUTF(menu.getName());
+            out.writeInt(menu.getPrice());
+            out.writeBoolean(menu.getAvailable());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 형식이 다르면(배포 중 버전 불일치 등) null 을 반환해서 miss 로 처리
+     */
+    static Menu decode(byte[] value) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            if (in.readByte() != VERSION) return null;
+            return Menu.restore(in.readLong(), in.readUTF(), in.readInt(), in.readBoolean());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.smalltest.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 공유 캐시를 사용하지 않을 때의 구현 (항상 miss)
+ */
+public class NoOpSharedCache implements SharedCache {
+
+    @Override
+    public byte[] get(String key) {
+        return null;
+    }
+
+    @Override
+    public Map<String, byte[]> getAll(Collection<String> keys) {
+        return Map.of();
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+    }
+
+    @Override
+    public void evict(String key) {
+    }
+}
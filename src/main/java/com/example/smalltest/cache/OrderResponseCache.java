@@ -0,0 +1,63 @@
+package com.example.smalltest.cache;
+
+import com.example.smalltest.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 주문 조회 결과 공유 캐시
+ * 완료/취소된 주문은 더 이상 바뀌지 않으므로 만료 없이, 진행 중인 주문은 짧은 TTL 로 저장한다.
+ */
+@Component
+public class OrderResponseCache {
+
+    private static final String KEY_PREFIX = "small-test:order:";
+
+    private final SharedCache sharedCache;
+    private final Duration activeOrderTtl;
+
+    public OrderResponseCache(SharedCache sharedCache,
+                              @Value("${app.cache.shared.active-order-ttl:30s}") Duration activeOrderTtl) {
+        this.sharedCache = sharedCache;
+        this.activeOrderTtl = activeOrderTtl;
+    }
+
+    /**
+     * 캐시에 없으면 null
+     */
+    public OrderResponse get(long orderId) {
+        byte[] value = sharedCache.get(KEY_PREFIX + orderId);
+        return value == null ? null : OrderResponseCodec.decode(value);
+    }
+
+    public void put(OrderResponse order) {
+        if (order.getId() == null) return;
+        Duration ttl = order.getStatus().isTerminal() ? null : activeOrderTtl;
+        sharedCache.put(KEY_PREFIX + order.getId(), OrderResponseCodec.encode(order), ttl);
+    }
+
+    public void evict(long orderId) {
+        sharedCache.evict(KEY_PREFIX + orderId);
+    }
+
+    /**
+     * 트랜잭션 안에서 호출되면 커밋된 뒤에 제거한다
+     * (커밋 전에 제거하면 다른 요청이 변경 전 주문을 다시 읽어서 TTL 동안 캐시에 올린다)
+     */
+    public void evictAfterCommit(long orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(orderId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(orderId);
+            }
+        });
+    }
+}
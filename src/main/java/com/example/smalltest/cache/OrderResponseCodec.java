@@ -0,0 +1,80 @@
+package com.example.smalltest.cache;
+
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.OrderItemResponse;
+import com.example.smalltest.dto.OrderResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 공유 캐시에 저장하는 주문 응답 직렬화 형식
+ * [버전(1)][id(8)][customerName(UTF)][status(UTF)][totalPrice(4)][orderedAt(8+4)][항목 수(2)][항목...]
+ * 항목: [menuId(8)][menuName(UTF)][menuPrice(4)][quantity(4)], subtotal 은 복원 시 계산
+ * 멱등성 키로 저장하는 첫 응답(IdempotencyRecord)도 같은 형식을 쓴다.
+ */
+public final class OrderResponseCodec {
+
+    private static final byte VERSION = 1;
+
+    private OrderResponseCodec() {
+    }
+
+    public static byte[] encode(OrderResponse order) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + order.getOrderItems().size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(order.getId());
+            out.writeUTF(order.getCustomerName());
+            out.writeUTF(order.getStatus().name());
+            out.writeInt(order.getTotalPrice());
+            out.writeLong(order.getOrderedAt().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(order.getOrderedAt().getNano());
+            out.writeShort(order.getOrderItems().size());
+            for (OrderItemResponse item : order.getOrderItems()) {
+                out.writeLong(item.getMenuId());
+                out.writeUTF(item.getMenuName());
+                out.writeInt(item.getMenuPrice());
+                out.writeInt(item.getQuantity());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 형식이 다르면 null 을 반환해서 miss 로 처리
+     */
+    public static OrderResponse decode(byte[] value) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            if (in.readByte() != VERSION) return null;
+            Long id = in.readLong();
+            String customerName = in.readUTF();
+            OrderStatus status = OrderStatus.valueOf(in.readUTF());
+            Integer totalPrice = in.readInt();
+            LocalDateTime orderedAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+
+            int itemCount = in.readUnsignedShort();
+            List<OrderItemResponse> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                Long menuId = in.readLong();
+                String menuName = in.readUTF();
+                int menuPrice = in.readInt();
+                int quantity = in.readInt();
+                items.add(new OrderItemResponse(menuId, menuName, menuPrice, quantity, menuPrice * quantity));
+            }
+            return new OrderResponse(id, customerName, status, items, totalPrice, orderedAt);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.smalltest.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * docker-compose 의 redis-cache 를 사용하는 공유 캐시
+ * Redis 장애 시 예외를 던지지 않고 miss 로 처리한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisSharedCache implements SharedCache {
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    @Override
+    public byte[] get(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (DataAccessException e) {
+            log.warn("Redis 조회 실패 key={}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, byte[]> getAll(Collection<String> keys) {
+        if (keys.isEmpty()) return Map.of();
+        List<String> keyList = new ArrayList<>(keys);
+        try {
+            //MGET 한 번으로 조회, 없는 키는 null 로 채워져서 돌아온다
+            List<byte[]> values = redisTemplate.opsForValue().multiGet(keyList);
+            Map<String, byte[]> result = new HashMap<>();
+            if (values == null) return result;
+            for (int i = 0; i < keyList.size(); i++) {
+                if (values.get(i) != null) result.put(keyList.get(i), values.get(i));
+            }
+            return result;
+        } catch (DataAccessException e) {
+            log.warn("Redis 조회 실패 keys={}: {}", keyList.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        try {
+            if (ttl == null) redisTemplate.opsForValue().set(key, value);
+            else redisTemplate.opsForValue().set(key, value, ttl);
+        } catch (DataAccessException e) {
+            log.warn("Redis 저장 실패 key={}: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.warn("Redis 삭제 실패 key={}: {}", key, e.getMessage());
+        }
+    }
+}
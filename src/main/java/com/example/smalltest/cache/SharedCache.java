@@ -0,0 +1,29 @@
+package com.example.smalltest.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 여러 애플리케이션 인스턴스가 함께 쓰는 2차 캐시 (Redis)
+ * 캐시 장애는 조회 실패(miss)로 취급하고 DB 조회로 넘어가야 한다.
+ */
+public interface SharedCache {
+
+    /**
+     * 캐시에 없으면 null
+     */
+    byte[] get(String key);
+
+    /**
+     * 캐시에 있는 키만 결과에 포함
+     */
+    Map<String, byte[]> getAll(Collection<String> keys);
+
+    /**
+     * ttl 이 null 이면 만료 없이 저장 (메모리가 부족하면 Redis 의 allkeys-lru 정책으로 제거됨)
+     */
+    void put(String key, byte[] value, Duration ttl);
+
+    void evict(String key);
+}
@@ -0,0 +1,39 @@
+package com.example.smalltest.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * 공유 캐시 구현 선택 (app.cache.shared.type)
+ * none: 사용 안 함(기본), redis: docker-compose 의 redis-cache, memory: 프로세스 내부 대체 구현
+ */
+@Configuration
+public class SharedCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.shared.type", havingValue = "redis")
+    public SharedCache redisSharedCache(RedisConnectionFactory redisConnectionFactory) {
+        RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+        return new RedisSharedCache(redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.shared.type", havingValue = "memory")
+    public SharedCache inMemorySharedCache() {
+        return new InMemorySharedCache();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.shared.type", havingValue = "none", matchIfMissing = true)
+    public SharedCache noOpSharedCache() {
+        return new NoOpSharedCache();
+    }
+}
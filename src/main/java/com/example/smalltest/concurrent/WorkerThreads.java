@@ -0,0 +1,30 @@
+package com.example.smalltest.concurrent;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 백그라운드 작업 실행기 생성 (S3 파트 전송, S3 일괄 요청, S3 비동기 업로드 스트림 읽기)
+ * 가상 스레드 모드(spring.threads.virtual.enabled)면 작업마다 가상 스레드를 새로 만드는 실행기, 아니면 크기가 정해진 플랫폼 스레드 풀.
+ * 가상 스레드는 풀에 넣어 재사용하지 않으므로 가상 스레드 모드에서는 poolSize 로 동시 실행 수가 제한되지 않는다.
+ * 동시 실행 수 제한이 필요한 호출부는 세마포어로 따로 제한해야 한다.
+ */
+public final class WorkerThreads {
+
+    //가상 스레드 모드 설정, 요청 처리(Tomcat)와 @Scheduled 는 스프링 부트가 같은 설정으로 전환한다
+    public static final String VIRTUAL_THREADS_PROPERTY = "${spring.threads.virtual.enabled:false}";
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * @param prefix 스레드 이름 접두사 (뒤에 1부터 번호가 붙는다)
+     * @param poolSize 플랫폼 스레드 풀 크기 (가상 스레드 모드에서는 사용하지 않음)
+     */
+    public static ExecutorService executor(String prefix, int poolSize, boolean virtual) {
+        if (virtual) return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+        return Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory(prefix));
+    }
+}
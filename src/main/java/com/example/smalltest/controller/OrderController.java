@@ -1,27 +1,214 @@
 package com.example.smalltest.controller;
 
+import com.example.smalltest.dto.AttachmentResponse;
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.BulkOrderResponse;
+import com.example.smalltest.dto.BulkStatusUpdateResponse;
 import com.example.smalltest.dto.OrderCreateRequest;
+import com.example.smalltest.dto.OrderPage;
+import com.example.smalltest.dto.OrderResponse;
+import com.example.smalltest.dto.OrderStatusBulkUpdateRequest;
+import com.example.smalltest.dto.OrderStatusUpdateRequest;
+import com.example.smalltest.export.OrderExport;
+import com.example.smalltest.export.OrderExportFormat;
+import com.example.smalltest.export.OrderExportService;
+import com.example.smalltest.service.OrderEventBroadcaster;
+import com.example.smalltest.service.OrderIdempotencyService;
 import com.example.smalltest.service.OrderService;
+import com.example.smalltest.storage.ObjectDownload;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
 
-@RestController("/api/orders")
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    //다운로드 시 한 번에 복사하는 크기 (첨부 파일 크기와 상관없이 고정)
+    private static final int DOWNLOAD_BUFFER_SIZE = 8 * 1024;
+
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderExportService orderExportService;
 
+    //첨부 파일은 주문 저장 후 백그라운드에서 업로드됨 (상태는 /{orderId}/attachment 로 조회)
+    //Idempotency-Key 를 주면 같은 키로 다시 보낸 요청은 주문을 새로 만들지 않고 첫 응답을 돌려준다 (Idempotent-Replayed: true)
     @PostMapping
     public ResponseEntity<?> createOrder(@Valid @RequestPart("request") OrderCreateRequest orderCreateRequest
-    , @RequestPart("file") MultipartFile file
+    , @RequestPart(value = "file", required = false) MultipartFile file
+    , @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
                                          ){
-        return ResponseEntity.ok(orderService.createOrder(orderCreateRequest,file));
+        if (idempotencyKey == null) return ResponseEntity.ok(orderService.createOrder(orderCreateRequest,file));
+
+        OrderIdempotencyService.Result result = orderIdempotencyService.createOrder(idempotencyKey, orderCreateRequest, file);
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    //주문 목록 (최신순, 커서 기반 페이지네이션), 응답의 nextCursor 를 cursor 로 넘기면 다음 페이지
+    //includeItems=false(기본) 면 주문 항목 없이 요약만 조회
+    @GetMapping
+    public ResponseEntity<OrderPage<?>> getOrders(@RequestParam(required = false) String customerName,
+                                                  @RequestParam(required = false) OrderStatus status,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") int size,
+                                                  @RequestParam(defaultValue = "false") boolean includeItems) {
+        if (includeItems) return ResponseEntity.ok(orderService.getOrders(customerName, status, cursor, size));
+        return ResponseEntity.ok(orderService.getOrderSummaries(customerName, status, cursor, size));
+    }
+
+    //주문 내보내기 (회계용), 주문일 from ~ to (포함, 생략하면 제한 없음) 를 CSV(항목당 한 줄) 또는 NDJSON(주문당 한 줄) 으로
+    //DB 커서에서 읽는 대로 응답에 흘려 쓰므로 기간과 상관없이 메모리 사용량이 일정하다, gzip=true 면 .gz 파일로 압축
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "CSV") OrderExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            NativeWebRequest webRequest) {
+
+        OrderExport export = orderExportService.open(format, from, to, gzip);
+        //본문을 쓰기 전에 비동기 요청이 끝나면 (시간 초과, 연결 끊김) 동시 내보내기 자리를 돌려준다
+        //이미 쓰기 시작했으면 DB 커넥션을 놓을 때까지 writeTo 가 자리를 잡고 있다가 끝날 때 반납
+        onAsyncCompletion(webRequest, OrderExport.class.getName(), export::abandon);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(export.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(export.getFilename()).build().toString())
+                .body(export::writeTo);
+    }
+
+    //주문 생성/상태 변경 실시간 스트림 (SSE, 주방/픽업 화면), status 를 주면 그 상태로 들어오거나 나가는 변경만
+    //재연결 시 Last-Event-ID 이후부터 이어서 받고, resync 이벤트를 받으면 목록을 다시 조회해야 한다
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeOrderEvents(@RequestParam(required = false) List<OrderStatus> status,
+                                           @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderEventBroadcaster.subscribe(status, lastEventId);
+    }
+
+    //여러 주문 일괄 생성 (키오스크 오프라인 주문 동기화)
+    //NDJSON(한 줄에 주문 하나) 또는 JSON 배열, 본문 전체를 메모리에 올리지 않고 주문 단위로 읽으면서 처리
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkOrderResponse> createOrders(InputStream body) throws IOException {
+        try (MappingIterator<OrderCreateRequest> orderCreateRequests =
+                     objectMapper.readerFor(OrderCreateRequest.class).readValues(body)) {
+            return ResponseEntity.ok(orderService.createOrders(orderCreateRequests));
+        }
+    }
+
+    //주문 상태 변경, 그 사이에 다른 요청이 먼저 상태를 바꿨으면 409
+    @PatchMapping("/{orderId}/status")
+    public ResponseEntity<OrderResponse> updateOrderStatus(@PathVariable Long orderId,
+                                                           @Valid @RequestBody OrderStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatus(orderId, request.expectedStatus(), request.status()));
+    }
+
+    //여러 주문 상태 일괄 변경 (주방 화면), 주문별 성공/거절 결과를 반환
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateOrderStatuses(@Valid @RequestBody OrderStatusBulkUpdateRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.orderIds(), request.status()));
+    }
+
+    @GetMapping("/{orderId}/attachment")
+    public ResponseEntity<AttachmentResponse> getAttachment(@PathVariable Long orderId) {
+        return ResponseEntity.ok(orderService.getAttachment(orderId));
+    }
+
+    //첨부 파일 다운로드, S3 응답을 고정 크기 버퍼로 바로 출력 스트림에 복사
+    //Range 요청은 206, If-None-Match 가 같으면 본문 없이 304
+    @GetMapping("/{orderId}/attachment/content")
+    public ResponseEntity<StreamingResponseBody> downloadAttachment(
+            @PathVariable Long orderId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            NativeWebRequest webRequest) {
+
+        ObjectDownload download = orderService.openAttachment(orderId, range, ifNoneMatch);
+        if (download.notModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(download.eTag()).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(download.isPartial() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .eTag(download.eTag())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentLength(download.contentLength());
+        if (download.isPartial()) response.header(HttpHeaders.CONTENT_RANGE, download.contentRange());
+        if (download.contentType() != null) response.contentType(MediaType.parseMediaType(download.contentType()));
+
+        //본문을 쓰기 전에 비동기 요청이 끝나도 (시간 초과, 연결 끊김) S3 응답 스트림을 닫아 커넥션을 풀에 돌려준다
+        AtomicBoolean closed = new AtomicBoolean();
+        Runnable closeBody = () -> {
+            if (closed.compareAndSet(false, true)) closeQuietly(download.body());
+        };
+        onAsyncCompletion(webRequest, ObjectDownload.class.getName(), closeBody);
+
+        return response.body(outputStream -> {
+            try {
+                InputStream in = download.body();
+                byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+            } finally {
+                closeBody.run();
+            }
+        });
+    }
+
+    //비동기 요청이 끝날 때 (본문을 다 썼거나, 시간 초과, 연결 끊김) 한 번 실행
+    private static void onAsyncCompletion(NativeWebRequest webRequest, String key, Runnable action) {
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(key, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                action.run();
+            }
+        });
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("첨부 파일 스트림 닫기 실패: {}", e.getMessage());
+        }
     }
 
 }
@@ -0,0 +1,48 @@
+package com.example.smalltest.controller;
+
+import com.example.smalltest.dto.DailySalesResponse;
+import com.example.smalltest.dto.MenuSalesResponse;
+import com.example.smalltest.dto.SalesRebuildResponse;
+import com.example.smalltest.sales.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports/sales")
+@RequiredArgsConstructor
+public class SalesReportController {
+
+    private final SalesReportService salesReportService;
+
+    //일별 매출 (주문일 기준, from ~ to 포함), 주문이 없는 날은 0
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailySalesResponse>> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesReportService.getDailySales(from, to));
+    }
+
+    //기간 내 인기 메뉴 (판매 수량 순)
+    @GetMapping("/menus")
+    public ResponseEntity<List<MenuSalesResponse>> getTopMenus(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesReportService.getTopMenus(from, to, limit));
+    }
+
+    //집계 테이블을 주문 데이터로 다시 만든다 (진행 중이면 409)
+    @PostMapping("/rebuild")
+    public ResponseEntity<SalesRebuildResponse> rebuild() {
+        return ResponseEntity.ok(salesReportService.rebuild());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.smalltest.domain;
+
+/**
+ * 주문 첨부 파일 업로드 상태
+ */
+public enum AttachmentStatus {
+    PENDING_UPLOAD, // 업로드 대기 중
+    UPLOADED,       // 업로드 완료
+    FAILED          // 재시도 후에도 업로드 실패
+}
@@ -0,0 +1,68 @@
+package com.example.smalltest.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+
+/**
+ * 일별 메뉴 판매 집계 (완료된 주문만, 주문일 기준)
+ */
+@Entity
+@Table(name = "daily_menu_sales")
+@IdClass(DailyMenuSalesId.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailyMenuSales implements Persistable<DailyMenuSalesId> {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "menu_id")
+    private Long menuId;
+
+    //마지막으로 집계된 주문 항목의 메뉴 이름 (메뉴 이름이 바뀌어도 리포트에 이름이 남도록)
+    @Column(name = "menu_name", nullable = false)
+    private String menuName;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false)
+    private long revenue;
+
+    //재집계 시 save 가 SELECT 후 merge 하지 않고 바로 INSERT 하도록
+    @Transient
+    private boolean isNew = true;
+
+    @Builder
+    public DailyMenuSales(LocalDate salesDate, Long menuId, String menuName, long quantity, long revenue) {
+        this.salesDate = salesDate;
+        this.menuId = menuId;
+        this.menuName = menuName;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    @Override
+    public DailyMenuSalesId getId() {
+        return new DailyMenuSalesId(salesDate, menuId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
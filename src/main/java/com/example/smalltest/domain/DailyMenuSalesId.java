@@ -0,0 +1,23 @@
+package com.example.smalltest.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 일별 메뉴 판매 집계의 키 (주문일, 메뉴)
+ */
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class DailyMenuSalesId implements Serializable {
+
+    private LocalDate salesDate;
+    private Long menuId;
+}
@@ -0,0 +1,68 @@
+package com.example.smalltest.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+
+/**
+ * 일별 매출 집계 (주문일 기준)
+ * 주문이 완료/취소될 때 같은 트랜잭션에서 증감하므로 리포트는 orders / order_items 를 다시 읽지 않는다.
+ */
+@Entity
+@Table(name = "daily_sales")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailySales implements Persistable<LocalDate> {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(name = "completed_orders", nullable = false)
+    private long completedOrders;
+
+    @Column(name = "cancelled_orders", nullable = false)
+    private long cancelledOrders;
+
+    //완료된 주문의 판매 수량 합계
+    @Column(nullable = false)
+    private long quantity;
+
+    //완료된 주문의 매출 (주문 항목 menuPrice * quantity 합계)
+    @Column(nullable = false)
+    private long revenue;
+
+    //재집계 시 save 가 SELECT 후 merge 하지 않고 바로 INSERT 하도록
+    @Transient
+    private boolean isNew = true;
+
+    @Builder
+    public DailySales(LocalDate salesDate, long completedOrders, long cancelledOrders, long quantity, long revenue) {
+        this.salesDate = salesDate;
+        this.completedOrders = completedOrders;
+        this.cancelledOrders = cancelledOrders;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    @Override
+    public LocalDate getId() {
+        return salesDate;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
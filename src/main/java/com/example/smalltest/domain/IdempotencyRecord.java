@@ -0,0 +1,75 @@
+package com.example.smalltest.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 멱등성 키로 처리한 주문 생성 요청의 첫 응답
+ * 주문과 같은 트랜잭션에서 저장하므로 키 하나에 주문은 하나만 생긴다. (키가 기본 키라서 동시에 저장하면 한쪽이 실패)
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        //만료된 키 정리용
+        @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    //같은 키로 다른 요청을 보냈는지 확인하는 요청 본문 해시 (SHA-256)
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    //OrderResponseCodec 형식
+    @Column(name = "response", nullable = false, length = 65535)
+    private byte[] response;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    //키를 직접 정하므로 save 가 SELECT 후 merge 하지 않고 바로 INSERT 하도록
+    @Transient
+    private boolean isNew = true;
+
+    @Builder
+    public IdempotencyRecord(String key, String requestHash, Long orderId, byte[] response, LocalDateTime expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.orderId = orderId;
+        this.response = response;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -5,15 +5,17 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.AbstractAggregateRoot;
 
 @Entity
 @Table(name = "menus")
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Menu {
+public class Menu extends AbstractAggregateRoot<Menu> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_seq")
+    @SequenceGenerator(name = "menu_seq", sequenceName = "menus_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -32,7 +34,22 @@ public class Menu {
         this.available = available != null ? available : true;
     }
 
+    /**
+     * 캐시에 저장된 값으로 메뉴를 복원 (영속성 컨텍스트에 속하지 않은 준영속 상태)
+     */
+    public static Menu restore(Long id, String name, Integer price, Boolean available) {
+        Menu menu = new Menu(name, price, available);
+        menu.id = id;
+        return menu;
+    }
+
     public void updateAvailability(boolean available) {
         this.available = available;
+        registerEvent(new MenuChangedEvent(this.id));
+    }
+
+    public void updatePrice(int price) {
+        this.price = price;
+        registerEvent(new MenuChangedEvent(this.id));
     }
 }
@@ -0,0 +1,8 @@
+package com.example.smalltest.domain;
+
+/**
+ * 메뉴의 가격 또는 판매 여부가 변경되었을 때 발행되는 이벤트
+ * (MenuRepository.save 시점에 발행, 메뉴 캐시 무효화에 사용)
+ */
+public record MenuChangedEvent(Long menuId) {
+}
@@ -12,20 +12,28 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        //목록 조회 (검색 조건, 최신순) 키셋 페이지네이션용
+        @Index(name = "idx_orders_customer_name_ordered_at", columnList = "customer_name, ordered_at, id"),
+        @Index(name = "idx_orders_status_ordered_at", columnList = "status, ordered_at, id"),
+        @Index(name = "idx_orders_ordered_at", columnList = "ordered_at, id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order {
 
+    //IDENTITY 는 INSERT 를 바로 실행해야 id 를 알 수 있어서 JDBC 배치가 꺼진다
+    //시퀀스에서 50개씩 미리 받아(pooled) INSERT 를 모아서 보낸다
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(name = "customer_name", nullable = false)
     private String customerName;
 
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(name = "status", nullable = false)
     private OrderStatus status;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -34,9 +42,19 @@ public class Order {
     @Column(nullable = false)
     private Integer totalPrice;
 
-    @Column(nullable = false)
+    @Column(name = "ordered_at", nullable = false)
     private LocalDateTime orderedAt;
 
+    //첨부 파일의 S3 객체 키 (첨부 파일이 없으면 null)
+    private String attachmentKey;
+
+    @Enumerated(EnumType.STRING)
+    private AttachmentStatus attachmentStatus;
+
+    //낙관적 잠금 버전 (엔티티 저장, 상태 조건부 UPDATE 마다 1 증가)
+    @Version
+    private Long version;
+
     @Builder
     public Order(String customerName) {
         this.customerName = customerName;
@@ -59,16 +77,19 @@ public class Order {
 
     }
 
+    /**
+     * 첨부 파일 등록, 실제 업로드는 주문 저장 이후 백그라운드에서 진행
+     */
+    public void attach(String attachmentKey) {
+        this.attachmentKey = attachmentKey;
+        this.attachmentStatus = AttachmentStatus.PENDING_UPLOAD;
+    }
+
     public void updateStatus(OrderStatus orderStatus) {
         validateStatusTransition(orderStatus);
         this.status = orderStatus;
     }
     private void validateStatusTransition(OrderStatus newStatus) {
-        if(!this.status.canTransitionTo(newStatus)){
-            throw new IllegalStateException(
-                    String.format("주문 상태를 %s에서 %s로 변경할 수 없습니다",this.status,newStatus)
-            );
-        }
-
+        this.status.validateTransitionTo(newStatus);
     }
 }
@@ -16,7 +16,8 @@ import lombok.NoArgsConstructor;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,6 +28,10 @@ public class OrderItem {
     @JoinColumn(name = "menu_id", nullable = false)
     private Menu menu;
 
+    //menu 연관관계와 같은 컬럼을 읽기 전용으로 매핑 (메뉴 id 만 필요할 때 프록시를 거치지 않음)
+    @Column(name = "menu_id", insertable = false, updatable = false)
+    private Long menuId;
+
     @Column(nullable = false)
     private String menuName;
 
@@ -40,6 +45,7 @@ public class OrderItem {
     public OrderItem(Order order, Menu menu, String menuName, Integer menuPrice, Integer quantity) {
         this.order = order;
         this.menu = menu;
+        this.menuId = menu != null ? menu.getId() : null;
         this.menuName = menuName;
         this.menuPrice = menuPrice;
         this.quantity = quantity;
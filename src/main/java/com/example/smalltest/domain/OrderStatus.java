@@ -1,9 +1,12 @@
 package com.example.smalltest.domain;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 
 /**
  * 주문 상태
+ * 전환 규칙은 클래스 로딩 시 한 번만 만들어 두고(상태별 비트마스크), 검사할 때는 객체를 만들지 않는다.
  */
 public enum OrderStatus {
     PENDING,      // 대기
@@ -12,15 +15,63 @@ public enum OrderStatus {
     COMPLETED,    // 완료
     CANCELLED;    // 취소됨
 
+    //전환 가능한 다음 상태 (ordinal 비트), 0 이면 종료 상태
+    private int allowedMask;
+    private Set<OrderStatus> allowedNextStatuses;
+
+    static {
+        allow(PENDING, CONFIRMED, CANCELLED);
+        allow(CONFIRMED, PREPARING, CANCELLED);
+        allow(PREPARING, COMPLETED);
+        allow(COMPLETED);
+        allow(CANCELLED);
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... next) {
+        EnumSet<OrderStatus> allowed = EnumSet.noneOf(OrderStatus.class);
+        Collections.addAll(allowed, next);
+        for (OrderStatus status : allowed) {
+            from.allowedMask |= 1 << status.ordinal();
+        }
+        from.allowedNextStatuses = Collections.unmodifiableSet(allowed);
+    }
+
     /**
      * 특정 상태로 전환 가능한지 확인
      */
     public boolean canTransitionTo(OrderStatus newStatus) {
-        return switch (this) {
-            case PENDING -> Set.of(CONFIRMED, CANCELLED).contains(newStatus);
-            case CONFIRMED -> Set.of(PREPARING, CANCELLED).contains(newStatus);
-            case PREPARING -> Set.of(COMPLETED).contains(newStatus);
-            case COMPLETED, CANCELLED -> false;
-        };
+        return newStatus != null && (allowedMask & (1 << newStatus.ordinal())) != 0;
+    }
+
+    /**
+     * 전환 가능한 다음 상태 (변경 불가)
+     */
+    public Set<OrderStatus> allowedNextStatuses() {
+        return allowedNextStatuses;
+    }
+
+    /**
+     * 더 이상 바뀌지 않는 상태인지 (완료, 취소)
+     */
+    public boolean isTerminal() {
+        return allowedMask == 0;
+    }
+
+    /**
+     * 전환할 수 없는 상태면 예외
+     */
+    public void validateTransitionTo(OrderStatus newStatus) {
+        if(!canTransitionTo(newStatus)){
+            throw invalidTransitionTo(newStatus);
+        }
+    }
+
+    /**
+     * 전환할 수 없을 때 던지는 예외 (canTransitionTo 로 이미 검사한 곳에서 사용)
+     */
+    public IllegalStateException invalidTransitionTo(OrderStatus newStatus) {
+        return new IllegalStateException(
+                String.format("주문 상태를 %s에서 %s로 변경할 수 없습니다",this,newStatus)
+        );
     }
-}
\ No newline at end of file
+}
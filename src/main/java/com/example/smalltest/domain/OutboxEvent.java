@@ -0,0 +1,51 @@
+package com.example.smalltest.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 이벤트 아웃박스
+ * 주문 변경과 같은 트랜잭션에서 저장하고, 릴레이가 싱크로 전달한 뒤 지운다 (최소 한 번 전달).
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        //릴레이가 오래된 순으로 가져갈 때
+        @Index(name = "idx_outbox_events_created_at", columnList = "created_at, id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+
+    //주문과 함께 배치 INSERT 되도록 주문과 같은 pooled 시퀀스 방식
+    //인스턴스마다 미리 받아 둔 구간에서 꺼내므로 id 순서는 저장 순서와 다를 수 있다 (릴레이는 created_at, id 순서)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    //JSON
+    @Column(name = "payload", nullable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Builder
+    public OutboxEvent(Long aggregateId, String eventType, String payload) {
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.AttachmentStatus;
+import com.example.smalltest.domain.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 주문 첨부 파일 상태 응답 DTO
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class AttachmentResponse {
+
+    private Long orderId;
+    private String attachmentKey;
+    private AttachmentStatus status;
+
+    public static AttachmentResponse from(Order order) {
+        return AttachmentResponse.builder()
+                .orderId(order.getId())
+                .attachmentKey(order.getAttachmentKey())
+                .status(order.getAttachmentStatus())
+                .build();
+    }
+}
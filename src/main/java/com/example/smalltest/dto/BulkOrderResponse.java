@@ -0,0 +1,29 @@
+package com.example.smalltest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 일괄 주문 생성 응답
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class BulkOrderResponse {
+
+    private int created;
+    private int failed;
+    private List<BulkOrderResult> results;
+
+    public static BulkOrderResponse from(List<BulkOrderResult> results) {
+        int created = (int) results.stream().filter(BulkOrderResult::isSuccess).count();
+        return BulkOrderResponse.builder()
+                .created(created)
+                .failed(results.size() - created)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.smalltest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 일괄 주문 생성 결과 (주문 한 건)
+ * index 는 요청 본문에서의 순서(0부터), 성공하면 orderId, 실패하면 error 가 채워진다.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class BulkOrderResult {
+
+    private int index;
+    private Long orderId;
+    private String error;
+
+    public static BulkOrderResult created(int index, Long orderId) {
+        return new BulkOrderResult(index, orderId, null);
+    }
+
+    public static BulkOrderResult failed(int index, String error) {
+        return new BulkOrderResult(index, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
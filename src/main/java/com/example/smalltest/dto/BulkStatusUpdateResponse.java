@@ -0,0 +1,32 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 일괄 상태 변경 응답 (results 는 요청한 주문 id 순서)
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateResponse {
+
+    private OrderStatus status;
+    private int updated;
+    private int rejected;
+    private List<BulkStatusUpdateResult> results;
+
+    public static BulkStatusUpdateResponse from(OrderStatus status, List<BulkStatusUpdateResult> results) {
+        int updated = (int) results.stream().filter(BulkStatusUpdateResult::isSuccess).count();
+        return BulkStatusUpdateResponse.builder()
+                .status(status)
+                .updated(updated)
+                .rejected(results.size() - updated)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 일괄 상태 변경 결과 (주문 한 건)
+ * 성공하면 previousStatus 가, 거절되면 error 가 채워진다.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateResult {
+
+    private Long orderId;
+    private OrderStatus previousStatus;
+    private String error;
+
+    public static BulkStatusUpdateResult updated(Long orderId, OrderStatus previousStatus) {
+        return new BulkStatusUpdateResult(orderId, previousStatus, null);
+    }
+
+    public static BulkStatusUpdateResult rejected(Long orderId, OrderStatus currentStatus, String error) {
+        return new BulkStatusUpdateResult(orderId, currentStatus, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.sales.DaySales;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * 일별 매출 리포트 한 줄
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class DailySalesResponse {
+
+    private LocalDate date;
+    private long completedOrders;
+    private long cancelledOrders;
+    private long quantity;
+    private long revenue;
+
+    public static DailySalesResponse from(DaySales day) {
+        return DailySalesResponse.builder()
+                .date(day.date())
+                .completedOrders(day.completedOrders())
+                .cancelledOrders(day.cancelledOrders())
+                .quantity(day.quantity())
+                .revenue(day.revenue())
+                .build();
+    }
+}
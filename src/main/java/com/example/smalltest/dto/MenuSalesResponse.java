@@ -0,0 +1,19 @@
+package com.example.smalltest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 기간 내 메뉴별 판매 리포트 한 줄 (판매 수량 순)
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class MenuSalesResponse {
+
+    private Long menuId;
+    private String menuName;
+    private long quantity;
+    private long revenue;
+}
@@ -0,0 +1,38 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.exception.InvalidOrderQueryException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 주문 목록 커서 (orderedAt, id), 이 값보다 오래된 주문부터 다음 페이지를 읽는다.
+ * 클라이언트에는 "orderedAt|id" 를 Base64(URL-safe) 로 인코딩한 문자열로 전달한다.
+ */
+public record OrderCursor(LocalDateTime orderedAt, Long id) {
+
+    //첫 페이지: 모든 주문보다 뒤에 있는 값
+    public static final OrderCursor FIRST = new OrderCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public static OrderCursor of(OrderSummaryResponse order) {
+        return new OrderCursor(order.getOrderedAt(), order.getId());
+    }
+
+    public String encode() {
+        String raw = orderedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return FIRST;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidOrderQueryException("잘못된 커서입니다.");
+        }
+    }
+}
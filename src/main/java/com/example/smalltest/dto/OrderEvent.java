@@ -0,0 +1,62 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * 주문 이벤트 (주방/픽업 화면 실시간 스트림)
+ * id 는 실시간 스트림에서 발행 순서대로 붙이는 번호로, 재연결 시 Last-Event-ID 로 이어받는 기준이다. (발행 전에는 null)
+ * 재시작하면 1 부터 다시 붙으므로 SSE id 로는 기동 식별자를 앞에 붙여서 보낸다.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class OrderEvent {
+
+    public enum Type {
+        CREATED,         // 주문 생성
+        STATUS_CHANGED   // 상태 변경
+    }
+
+    private Long id;
+    private Type type;
+    private Long orderId;
+    private OrderStatus status;
+    private OrderStatus previousStatus;
+    private LocalDateTime occurredAt;
+
+    public static OrderEvent created(Long orderId, OrderStatus status) {
+        return OrderEvent.builder()
+                .type(Type.CREATED)
+                .orderId(orderId)
+                .status(status)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static OrderEvent statusChanged(Long orderId, OrderStatus previousStatus, OrderStatus status) {
+        return OrderEvent.builder()
+                .type(Type.STATUS_CHANGED)
+                .orderId(orderId)
+                .status(status)
+                .previousStatus(previousStatus)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * 구독 상태 필터에 해당하는지 (비어 있으면 전체)
+     * 상태가 필터에 들어오거나 필터에서 빠져나가는 변경 모두 해당한다.
+     */
+    public boolean matches(Set<OrderStatus> statuses) {
+        return statuses.isEmpty() || statuses.contains(status)
+                || (previousStatus != null && statuses.contains(previousStatus));
+    }
+}
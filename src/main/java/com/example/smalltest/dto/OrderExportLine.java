@@ -0,0 +1,20 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 주문 내보내기 NDJSON 한 줄 (주문 하나와 그 주문 항목)
+ */
+public record OrderExportLine(Long id,
+                              String customerName,
+                              OrderStatus status,
+                              Integer totalPrice,
+                              LocalDateTime orderedAt,
+                              List<Item> orderItems) {
+
+    public record Item(Long menuId, String menuName, Integer menuPrice, Integer quantity) {
+    }
+}
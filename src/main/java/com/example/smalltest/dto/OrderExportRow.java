@@ -0,0 +1,20 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 내보내기용 주문 항목 한 줄 (주문 정보 포함, 엔티티를 읽지 않고 JPQL 생성자 표현식으로 조회)
+ * 항목이 없는 주문은 항목 컬럼이 null 인 한 줄로 나온다.
+ */
+public record OrderExportRow(Long orderId,
+                             String customerName,
+                             OrderStatus status,
+                             Integer totalPrice,
+                             LocalDateTime orderedAt,
+                             Long menuId,
+                             String menuName,
+                             Integer menuPrice,
+                             Integer quantity) {
+}
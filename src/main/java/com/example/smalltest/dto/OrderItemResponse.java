@@ -21,7 +21,7 @@ public class OrderItemResponse {
 
     public static OrderItemResponse from(OrderItem orderItem) {
         return OrderItemResponse.builder()
-                .menuId(orderItem.getMenu().getId())
+                .menuId(orderItem.getMenuId())
                 .menuName(orderItem.getMenuName())
                 .menuPrice(orderItem.getMenuPrice())
                 .quantity(orderItem.getQuantity())
@@ -0,0 +1,19 @@
+package com.example.smalltest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 커서 기반 주문 목록 페이지
+ * nextCursor 를 다음 요청의 cursor 로 넘기면 이어서 조회한다 (마지막 페이지면 null)
+ */
+@Getter
+@AllArgsConstructor
+public class OrderPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
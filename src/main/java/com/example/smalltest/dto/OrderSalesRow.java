@@ -0,0 +1,17 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 매출 재집계용 주문 항목 한 줄 (주문 정보 포함, 엔티티를 읽지 않고 JPQL 생성자 표현식으로 조회)
+ */
+public record OrderSalesRow(Long orderId,
+                            OrderStatus status,
+                            LocalDateTime orderedAt,
+                            Long menuId,
+                            String menuName,
+                            Integer menuPrice,
+                            Integer quantity) {
+}
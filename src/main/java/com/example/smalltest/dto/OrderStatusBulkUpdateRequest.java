@@ -0,0 +1,19 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record OrderStatusBulkUpdateRequest(
+
+        @NotEmpty(message = "주문 id는 최소 1개 이상이어야 합니다.")
+        @Size(max = 1000, message = "한 번에 최대 1000개 주문까지 변경할 수 있습니다.")
+        List<@NotNull Long> orderIds,
+
+        @NotNull(message = "변경할 상태는 필수입니다.")
+        OrderStatus status
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+
+public record OrderStatusUpdateRequest(
+
+        @NotNull(message = "변경할 상태는 필수입니다.")
+        OrderStatus status,
+
+        //클라이언트가 알고 있는 현재 상태, 실제 상태와 다르면 409 (생략하면 서버에서 읽은 상태 기준)
+        OrderStatus expectedStatus
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+
+/**
+ * 주문 id 와 현재 상태만 읽는 프로젝션 (일괄 상태 변경용)
+ */
+public record OrderStatusView(Long id, OrderStatus status) {
+}
@@ -0,0 +1,24 @@
+package com.example.smalltest.dto;
+
+import com.example.smalltest.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 목록용 요약 DTO (주문 항목 없음)
+ * 엔티티를 읽지 않고 JPQL 생성자 표현식으로 바로 조회한다.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class OrderSummaryResponse {
+
+    private Long id;
+    private String customerName;
+    private OrderStatus status;
+    private Integer totalPrice;
+    private LocalDateTime orderedAt;
+}
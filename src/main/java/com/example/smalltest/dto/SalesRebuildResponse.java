@@ -0,0 +1,22 @@
+package com.example.smalltest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 매출 집계 재집계 결과
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class SalesRebuildResponse {
+
+    //집계에 반영한 완료/취소 주문 수
+    private long orders;
+    //다시 만든 일별 집계 행 수
+    private int days;
+    //다시 만든 일별 메뉴 집계 행 수
+    private int menus;
+    private long elapsedMillis;
+}
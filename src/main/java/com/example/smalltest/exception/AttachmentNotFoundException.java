@@ -0,0 +1,15 @@
+package com.example.smalltest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 첨부 파일이 없거나 아직 업로드되지 않았을 때 (404)
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class AttachmentNotFoundException extends RuntimeException {
+
+    public AttachmentNotFoundException(String message) {
+        super(message);
+    }
+}
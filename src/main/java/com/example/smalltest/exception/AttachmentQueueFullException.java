@@ -0,0 +1,15 @@
+package com.example.smalltest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 첨부 파일 업로드 대기열이 가득 차서 주문을 받을 수 없을 때 (503, 클라이언트는 잠시 후 재시도)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AttachmentQueueFullException extends RuntimeException {
+
+    public AttachmentQueueFullException() {
+        super("첨부 파일 업로드 대기열이 가득 찼습니다. 잠시 후 다시 시도해 주세요.");
+    }
+}
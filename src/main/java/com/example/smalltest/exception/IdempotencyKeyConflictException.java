@@ -0,0 +1,15 @@
+package com.example.smalltest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 같은 Idempotency-Key 로 다른 요청을 보냈거나, 같은 요청이 아직 처리 중일 때 (409)
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.smalltest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 주문 목록 조회 조건이 잘못됐을 때 (검색 조건 없음, 잘못된 커서) (400)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderQueryException extends RuntimeException {
+
+    public InvalidOrderQueryException(String message) {
+        super(message);
+    }
+}
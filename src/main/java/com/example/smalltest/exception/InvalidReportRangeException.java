@@ -0,0 +1,15 @@
+package com.example.smalltest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 리포트 조회 기간이 잘못됐을 때 (시작일이 종료일보다 늦음, 최대 기간 초과) (400)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidReportRangeException extends RuntimeException {
+
+    public InvalidReportRangeException(String message) {
+        super(message);
+    }
+}
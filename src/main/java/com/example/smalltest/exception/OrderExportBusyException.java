@@ -0,0 +1,15 @@
+package com.example.smalltest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 동시에 진행 중인 주문 내보내기가 최대 개수일 때 (503, 클라이언트는 잠시 후 재시도)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OrderExportBusyException extends RuntimeException {
+
+    public OrderExportBusyException() {
+        super("진행 중인 주문 내보내기가 많습니다. 잠시 후 다시 시도해 주세요.");
+    }
+}
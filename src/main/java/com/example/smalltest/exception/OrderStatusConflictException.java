@@ -0,0 +1,17 @@
+package com.example.smalltest.exception;
+
+import com.example.smalltest.domain.OrderStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 주문 상태를 바꾸는 사이에 다른 요청이 먼저 상태를 바꿨을 때 (409)
+ * 덮어쓰지 않고 실패시켜서 클라이언트가 최신 상태를 다시 조회하게 한다.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrderStatusConflictException extends RuntimeException {
+
+    public OrderStatusConflictException(Long orderId, OrderStatus expectedStatus, OrderStatus newStatus) {
+        super(String.format("주문 상태가 이미 변경되었습니다. orderId=%d, %s -> %s", orderId, expectedStatus, newStatus));
+    }
+}
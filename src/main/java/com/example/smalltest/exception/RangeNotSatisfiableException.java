@@ -0,0 +1,15 @@
+package com.example.smalltest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 객체 크기를 벗어나거나 지원하지 않는 Range 요청 (416)
+ */
+@ResponseStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+public class RangeNotSatisfiableException extends RuntimeException {
+
+    public RangeNotSatisfiableException(String range) {
+        super("처리할 수 없는 Range 요청입니다. " + range);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.smalltest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 매출 집계 재집계가 이미 진행 중일 때 (409)
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SalesRebuildInProgressException extends RuntimeException {
+
+    public SalesRebuildInProgressException() {
+        super("매출 집계 재집계가 이미 진행 중입니다.");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.smalltest.export;
+
+import com.example.smalltest.dto.OrderExportRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 주문 항목당 한 줄 CSV (RFC 4180 따옴표 규칙), 주문 정보는 항목마다 반복한다
+ */
+class CsvOrderExportWriter implements OrderExportWriter {
+
+    static final String HEADER = "order_id,customer_name,status,ordered_at,total_price,menu_id,menu_name,menu_price,quantity";
+
+    private final Writer writer;
+    private boolean headerWritten;
+
+    CsvOrderExportWriter(OutputStream out) {
+        this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void write(OrderExportRow row) throws IOException {
+        writeHeaderOnce();
+        writer.write(String.valueOf(row.orderId()));
+        writer.write(',');
+        writer.write(quote(row.customerName()));
+        writer.write(',');
+        writer.write(row.status().name());
+        writer.write(',');
+        writer.write(row.orderedAt().toString());
+        writer.write(',');
+        writer.write(text(row.totalPrice()));
+        writer.write(',');
+        writer.write(text(row.menuId()));
+        writer.write(',');
+        writer.write(quote(row.menuName()));
+        writer.write(',');
+        writer.write(text(row.menuPrice()));
+        writer.write(',');
+        writer.write(text(row.quantity()));
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeHeaderOnce();
+        writer.flush();
+    }
+
+    //엑셀에서 한글이 깨지지 않도록 UTF-8 BOM 을 헤더 앞에 붙인다
+    private void writeHeaderOnce() throws IOException {
+        if (headerWritten) return;
+        writer.write('\uFEFF');
+        writer.write(HEADER);
+        writer.write("\r\n");
+        headerWritten = true;
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    //쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 안의 따옴표는 두 번 쓴다
+    static String quote(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.smalltest.export;
+
+import com.example.smalltest.dto.OrderExportLine;
+import com.example.smalltest.dto.OrderExportRow;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 주문당 한 줄 NDJSON, 같은 주문 id 의 줄을 모아 두었다가 주문 id 가 바뀌면 한 줄로 쓴다
+ */
+class NdjsonOrderExportWriter implements OrderExportWriter {
+
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+
+    private OrderExportRow current;
+    private final List<OrderExportLine.Item> items = new ArrayList<>();
+
+    NdjsonOrderExportWriter(OutputStream out, ObjectMapper objectMapper) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void write(OrderExportRow row) throws IOException {
+        if (current == null || !current.orderId().equals(row.orderId())) {
+            writeCurrent();
+            current = row;
+        }
+        //항목이 없는 주문은 LEFT JOIN 으로 항목 컬럼이 null 인 한 줄만 나온다
+        if (row.quantity() != null) {
+            items.add(new OrderExportLine.Item(row.menuId(), row.menuName(), row.menuPrice(), row.quantity()));
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeCurrent();
+        out.flush();
+    }
+
+    private void writeCurrent() throws IOException {
+        if (current == null) return;
+        OrderExportLine line = new OrderExportLine(current.orderId(), current.customerName(), current.status(),
+                current.totalPrice(), current.orderedAt(), List.copyOf(items));
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+        items.clear();
+    }
+}
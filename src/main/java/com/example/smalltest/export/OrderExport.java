@@ -0,0 +1,52 @@
+package com.example.smalltest.export;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 시작할 수 있게 준비된 주문 내보내기 (응답 헤더 정보와 본문 쓰기)
+ * 준비할 때 잡은 동시 내보내기 자리는 writeTo 가 끝나면 (실패해도) 반납한다.
+ * writeTo 가 호출되지 않고 요청이 끝날 수 있으므로 (시간 초과, 연결 끊김) 받은 쪽은 요청이 끝날 때 abandon 도 호출해야 한다.
+ * 이미 쓰기 시작했으면 abandon 은 아무 일도 하지 않는다 (시간 초과 뒤에도 DB 커서를 읽는 중일 수 있어서 writeTo 가 끝날 때 반납).
+ */
+@Getter
+public class OrderExport {
+
+    private final String contentType;
+    private final String filename;
+    private final Body body;
+    private final Runnable releaseSlot;
+    //writeTo 와 abandon 중 먼저 호출된 쪽만 진행한다 (자리 반납도 그쪽에서 한 번)
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @FunctionalInterface
+    interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    OrderExport(String contentType, String filename, Body body, Runnable releaseSlot) {
+        this.contentType = contentType;
+        this.filename = filename;
+        this.body = body;
+        this.releaseSlot = releaseSlot;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        if (!started.compareAndSet(false, true)) throw new IOException("이미 끝난 내보내기 요청");
+        try {
+            body.writeTo(out);
+        } finally {
+            releaseSlot.run();
+        }
+    }
+
+    /**
+     * 본문을 쓰기 전에 요청이 끝났을 때 동시 내보내기 자리 반납 (이미 쓰기 시작했거나 반납했으면 아무 일도 하지 않는다)
+     */
+    public void abandon() {
+        if (started.compareAndSet(false, true)) releaseSlot.run();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.smalltest.export;
+
+import org.springframework.http.MediaType;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+
+/**
+ * 주문 내보내기 형식
+ * CSV 는 주문 항목당 한 줄 (스프레드시트용), NDJSON 은 주문당 한 줄 (주문 항목은 배열로)
+ */
+public enum OrderExportFormat {
+
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    OrderExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    OrderExportWriter writer(OutputStream out, ObjectMapper objectMapper) {
+        return switch (this) {
+            case CSV -> new CsvOrderExportWriter(out);
+            case NDJSON -> new NdjsonOrderExportWriter(out, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.smalltest.export;
+
+import com.example.smalltest.dto.OrderExportRow;
+import com.example.smalltest.exception.InvalidOrderQueryException;
+import com.example.smalltest.exception.OrderExportBusyException;
+import com.example.smalltest.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 주문 내보내기 (회계용, 몇 달치)
+ * 읽기 전용 트랜잭션에서 주문 + 주문 항목을 DB 커서로 흘려 읽으면서 바로 응답 스트림에 쓴다.
+ * 메모리에는 버퍼와 주문 하나 분량만 남으므로 기간과 상관없이 메모리 사용량이 일정하다.
+ * 내보내기 하나가 끝날 때까지 DB 커넥션을 하나 잡고 있으므로 동시에 실행하는 수를 제한한다.
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+
+    //응답 스트림, gzip 에 한 번에 넘기는 크기
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    //기간을 주지 않았을 때의 범위 (모든 주문을 포함하는 값)
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore slots;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.order.export.max-concurrent:2}") int maxConcurrent) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * 주문일 from ~ to (포함, null 이면 제한 없음) 주문 내보내기를 준비한다
+     * 동시 내보내기가 최대 개수면 503, 본문은 반환된 OrderExport.writeTo 에서 쓴다. (자리 반납은 OrderExport 참고)
+     */
+    public OrderExport open(OrderExportFormat format, LocalDate from, LocalDate to, boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidOrderQueryException("from 은 to 보다 늦을 수 없습니다.");
+        }
+        if (!slots.tryAcquire()) throw new OrderExportBusyException();
+
+        LocalDateTime start = from != null ? from.atStartOfDay() : EARLIEST;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : LATEST;
+        String filename = "orders-" + (from != null ? from : "all") + "-" + (to != null ? to : "all")
+                + "." + format.extension() + (gzip ? ".gz" : "");
+        return new OrderExport(gzip ? "application/gzip" : format.contentType(), filename,
+                out -> write(format, start, end, gzip, out), slots::release);
+    }
+
+    private void write(OrderExportFormat format, LocalDateTime from, LocalDateTime to, boolean gzip,
+                       OutputStream out) throws IOException {
+        long begin = System.nanoTime();
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        OutputStream target = new BufferedOutputStream(gzip ? gzipStream : out, BUFFER_SIZE);
+
+        //쓰는 도중에 클라이언트가 끊으면 IOException 으로 트랜잭션(커서)을 정리하고 그대로 던진다
+        Long orders;
+        try {
+            orders = readOnlyTransaction.execute(status -> copyRows(format, from, to, target));
+        } catch (UncheckedIOException e) {
+            log.warn("주문 내보내기 중단 format={} cause={}", format, e.getCause().toString());
+            throw e.getCause();
+        }
+        target.flush();
+        if (gzipStream != null) gzipStream.finish();
+
+        log.info("주문 내보내기 완료 format={} gzip={} orders={} elapsed={}ms", format, gzip, orders,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+    }
+
+    private long copyRows(OrderExportFormat format, LocalDateTime from, LocalDateTime to, OutputStream target) {
+        OrderExportWriter writer = format.writer(target, objectMapper);
+        long orders = 0;
+        try (Stream<OrderExportRow> rows = orderRepository.streamExportRows(from, to)) {
+            Long lastOrderId = null;
+            Iterator<OrderExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                OrderExportRow row = iterator.next();
+                if (!row.orderId().equals(lastOrderId)) {
+                    lastOrderId = row.orderId();
+                    orders++;
+                }
+                writer.write(row);
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.smalltest.export;
+
+import com.example.smalltest.dto.OrderExportRow;
+
+import java.io.IOException;
+
+/**
+ * 주문 id 순서로 들어오는 주문 항목 줄을 내보내기 형식으로 쓴다 (한 번에 주문 하나 분량만 메모리에 둔다)
+ */
+interface OrderExportWriter {
+
+    void write(OrderExportRow row) throws IOException;
+
+    /**
+     * 남은 내용을 모두 출력 스트림으로 내보낸다 (출력 스트림은 닫지 않는다)
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,96 @@
+package com.example.smalltest.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 작업(enum) x 결과(success / error) 별 타이머를 시작할 때 한 번만 등록해 두고 배열로 꺼내 쓴다.
+ * 호출마다 태그나 Timer.Sample 을 만들지 않도록 시작 시각은 System.nanoTime() 으로 잰다.
+ * <pre>
+ * return timers.time(Operation.UPLOAD, () -> delegate.upload(...));
+ * </pre>
+ * 끝나는 시점이 호출이 돌아온 뒤인 작업(비동기 완료 등)은 시작 시각을 직접 넘겨 record 로 기록한다.
+ */
+public final class OperationTimers<E extends Enum<E>> {
+
+    /**
+     * 처리 시간을 잴 작업 (X: 그대로 던지는 checked 예외, 없으면 RuntimeException 으로 추론)
+     */
+    @FunctionalInterface
+    public interface TimedCall<T, X extends Exception> {
+        T call() throws X;
+    }
+
+    @FunctionalInterface
+    public interface TimedRun<X extends Exception> {
+        void run() throws X;
+    }
+
+    private final Timer[] success;
+    private final Timer[] error;
+
+    public OperationTimers(MeterRegistry meterRegistry, String name, String description, Class<E> operations) {
+        E[] values = operations.getEnumConstants();
+        this.success = new Timer[values.length];
+        this.error = new Timer[values.length];
+        for (E operation : values) {
+            success[operation.ordinal()] = register(meterRegistry, name, description, operation, "success");
+            error[operation.ordinal()] = register(meterRegistry, name, description, operation, "error");
+        }
+    }
+
+    private static Timer register(MeterRegistry meterRegistry, String name, String description,
+                                  Enum<?> operation, String outcome) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", tagValue(operation))
+                .tag("outcome", outcome)
+                //서버에서 p50/p95/p99 를 계산할 수 있도록 히스토그램 버킷을 내보낸다
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    /**
+     * CREATE_ORDER -> create_order
+     */
+    public static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    public void record(E operation, long startNanos, boolean succeeded) {
+        Timer timer = succeeded ? success[operation.ordinal()] : error[operation.ordinal()];
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 작업을 실행하고 처리 시간을 기록한다 (예외로 끝나면 error, 예외는 그대로 던진다)
+     */
+    public <T, X extends Exception> T time(E operation, TimedCall<T, X> call) throws X {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.call();
+            success = true;
+            return result;
+        } finally {
+            record(operation, start, success);
+        }
+    }
+
+    public <X extends Exception> void run(E operation, TimedRun<X> run) throws X {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            run.run();
+            success = true;
+        } finally {
+            record(operation, start, success);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.smalltest.metrics;
+
+import com.example.smalltest.domain.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 주문 서비스 지표
+ * order.service: 메서드별 처리 시간, order.create.phase: 주문 생성 단계별(메뉴 조회 / 첨부 파일 스풀 / INSERT) 처리 시간
+ * INSERT 는 커밋할 때 flush 되므로 저장 호출부터 커밋까지를 잰다.
+ * order.status.transitions: 상태 전환 수 (from, to), order.status.transitions.rejected: 거절된 전환 수 (from, to, reason)
+ * 모든 미터는 생성 시 등록해 두고 호출 시에는 배열에서 꺼내기만 한다.
+ */
+@Component
+public class OrderMetrics {
+
+    public enum Operation {
+        CREATE_ORDER,
+        CREATE_ORDERS,
+        GET_ORDER,
+        GET_ORDER_SUMMARIES,
+        GET_ORDERS,
+        UPDATE_STATUS,
+        UPDATE_STATUSES
+    }
+
+    public enum Phase {
+        MENU_LOOKUP,
+        ATTACHMENT_SPOOL,
+        INSERT
+    }
+
+    public enum RejectReason {
+        INVALID_TRANSITION,   // 전환 규칙 위반
+        CONFLICT              // 그 사이에 다른 요청이 먼저 변경
+    }
+
+    private final OperationTimers<Operation> operations;
+    private final OperationTimers<Phase> phases;
+    private final Counter[][] transitions;
+    private final Counter[][][] rejected;
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        this.operations = new OperationTimers<>(meterRegistry, "order.service",
+                "주문 서비스 메서드 처리 시간", Operation.class);
+        this.phases = new OperationTimers<>(meterRegistry, "order.create.phase",
+                "주문 생성 단계별 처리 시간", Phase.class);
+
+        OrderStatus[] statuses = OrderStatus.values();
+        RejectReason[] reasons = RejectReason.values();
+        this.transitions = new Counter[statuses.length][statuses.length];
+        this.rejected = new Counter[statuses.length][statuses.length][reasons.length];
+        for (OrderStatus from : statuses) {
+            for (OrderStatus to : statuses) {
+                transitions[from.ordinal()][to.ordinal()] = Counter.builder("order.status.transitions")
+                        .description("주문 상태 전환 수")
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .register(meterRegistry);
+                for (RejectReason reason : reasons) {
+                    rejected[from.ordinal()][to.ordinal()][reason.ordinal()] = Counter.builder("order.status.transitions.rejected")
+                            .description("거절된 주문 상태 전환 수")
+                            .tag("from", from.name())
+                            .tag("to", to.name())
+                            .tag("reason", OperationTimers.tagValue(reason))
+                            .register(meterRegistry);
+                }
+            }
+        }
+    }
+
+    public <T, X extends Exception> T time(Operation operation, OperationTimers.TimedCall<T, X> call) throws X {
+        return operations.time(operation, call);
+    }
+
+    public void recordPhase(Phase phase, long startNanos) {
+        phases.record(phase, startNanos, true);
+    }
+
+    /**
+     * 트랜잭션 안에서 호출되면 커밋된 뒤에 기록한다 (롤백되면 기록하지 않음)
+     */
+    public void recordPhaseAfterCommit(Phase phase, long startNanos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordPhase(phase, startNanos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordPhase(phase, startNanos);
+            }
+        });
+    }
+
+    public void transitioned(OrderStatus from, OrderStatus to) {
+        transitions[from.ordinal()][to.ordinal()].increment();
+    }
+
+    public void rejected(OrderStatus from, OrderStatus to, RejectReason reason) {
+        //변경할 상태가 없는 요청은 요청 검증에서 걸러지므로 세지 않는다
+        if (from == null || to == null) return;
+        rejected[from.ordinal()][to.ordinal()][reason.ordinal()].increment();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.smalltest.outbox;
+
+import com.example.smalltest.domain.OutboxEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 받은 이벤트를 메모리에 쌓아 두는 싱크 (테스트, 로컬 실행용)
+ */
+public class InMemoryOrderEventSink implements OrderEventSink {
+
+    private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(List<OutboxEvent> events) {
+        this.events.addAll(events);
+    }
+
+    public List<OutboxEvent> events() {
+        return List.copyOf(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+}
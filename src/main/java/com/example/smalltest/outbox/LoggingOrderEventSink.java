@@ -0,0 +1,21 @@
+package com.example.smalltest.outbox;
+
+import com.example.smalltest.domain.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * 로그로만 남기는 싱크 (브로커를 붙이기 전 기본값)
+ */
+@Slf4j
+public class LoggingOrderEventSink implements OrderEventSink {
+
+    @Override
+    public void send(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("주문 이벤트 id={} orderId={} type={} payload={}",
+                    event.getId(), event.getAggregateId(), event.getEventType(), event.getPayload());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.smalltest.outbox;
+
+import com.example.smalltest.domain.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * 아웃박스 이벤트를 내보낼 곳 (메시지 브로커 등)
+ * 예외 없이 돌아오면 전달된 것으로 보고 아웃박스에서 지운다. 예외가 나면 배치 전체를 다음 주기에 다시 보낸다.
+ * 같은 이벤트가 두 번 갈 수 있으므로 받는 쪽은 OutboxEvent id 로 중복을 걸러야 한다.
+ */
+public interface OrderEventSink {
+
+    void send(List<OutboxEvent> events);
+}
@@ -0,0 +1,31 @@
+package com.example.smalltest.outbox;
+
+import com.example.smalltest.domain.OutboxEvent;
+import com.example.smalltest.dto.OrderEvent;
+import com.example.smalltest.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 주문 이벤트를 아웃박스 테이블에 저장
+ * 주문 변경과 같은 트랜잭션에서만 호출할 수 있다 (트랜잭션이 없으면 예외), 실제 전달은 OutboxRelay 가 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(event.getOrderId())
+                .eventType(event.getType().name())
+                .payload(objectMapper.writeValueAsString(event))
+                .build());
+    }
+}
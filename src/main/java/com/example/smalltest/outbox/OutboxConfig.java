@@ -0,0 +1,44 @@
+package com.example.smalltest.outbox;
+
+import com.example.smalltest.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 주문 이벤트 아웃박스 싱크 선택 (app.outbox.sink) 과 릴레이 설정
+ * log: 로그로만 남김(기본), memory: 메모리에 쌓아 둠(테스트)
+ * 릴레이는 app.outbox.relay.enabled=false 로 끌 수 있다 (아웃박스 저장은 계속된다).
+ */
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "log", matchIfMissing = true)
+    public OrderEventSink loggingOrderEventSink() {
+        return new LoggingOrderEventSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory")
+    public OrderEventSink inMemoryOrderEventSink() {
+        return new InMemoryOrderEventSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   OrderEventSink orderEventSink,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.outbox.relay.batch-size:100}") int batchSize,
+                                   @Value("${app.outbox.relay.max-batches-per-run:10}") int maxBatchesPerRun) {
+        return new OutboxRelay(outboxEventRepository, orderEventSink, transactionTemplate,
+                batchSize, maxBatchesPerRun, meterRegistry);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.smalltest.outbox;
+
+import com.example.smalltest.domain.OutboxEvent;
+import com.example.smalltest.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 아웃박스 릴레이
+ * 주기마다 아웃박스를 batchSize 개씩 잠가서(SKIP LOCKED) 싱크로 보내고, 보낸 행은 같은 트랜잭션에서 지운다.
+ * 다른 인스턴스가 잠근 행은 건너뛰므로 여러 인스턴스에서 동시에 돌려도 같은 이벤트를 나눠 갖지 않는다.
+ * (인스턴스 사이에서는 주문별 순서가 보장되지 않으므로 받는 쪽은 OrderEvent 의 상태를 기준으로 처리한다)
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventSink orderEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer lag;
+    private final Timer batchTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OrderEventSink orderEventSink,
+                       TransactionTemplate transactionTemplate, int batchSize, int maxBatchesPerRun,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderEventSink = orderEventSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.relayed = Counter.builder("outbox.events.relayed")
+                .description("싱크로 전달한 아웃박스 이벤트 수")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("싱크 전달에 실패해서 다시 보낼 배치 수")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.events.lag")
+                .description("아웃박스에 저장된 뒤 싱크로 전달되기까지 걸린 시간")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("배치 하나를 가져와서 전달하고 지우는 데 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 한 주기에 최대 maxBatchesPerRun 배치, 가져온 배치가 batchSize 보다 작으면 밀린 이벤트가 없으므로 멈춘다
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:1s}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) return;
+        }
+    }
+
+    /**
+     * 배치 하나 전달, 전달한 이벤트 수 (실패하면 0, 잠금이 풀리면서 다음 주기에 다시 가져간다)
+     */
+    int relayBatch() {
+        Timer.Sample sample = Timer.start();
+        try {
+            List<OutboxEvent> events = transactionTemplate.execute(status -> {
+                List<OutboxEvent> batch = outboxEventRepository.claimBatch(Limit.of(batchSize));
+                if (batch.isEmpty()) return batch;
+                orderEventSink.send(batch);
+                outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+                return batch;
+            });
+            if (events.isEmpty()) return 0;
+
+            sample.stop(batchTimer);
+            relayed.increment(events.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxEvent event : events) {
+                lag.record(Duration.between(event.getCreatedAt(), now));
+            }
+            return events.size();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("아웃박스 이벤트 전달 실패, 다음 주기에 다시 보냄: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.smalltest.repository;
+
+import com.example.smalltest.domain.DailyMenuSales;
+import com.example.smalltest.domain.DailyMenuSalesId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailyMenuSalesRepository extends JpaRepository<DailyMenuSales, DailyMenuSalesId> {
+
+    /**
+     * 여러 날짜의 메뉴별 집계를 한 번에 조회
+     */
+    List<DailyMenuSales> findBySalesDateIn(Collection<LocalDate> salesDates);
+
+    /**
+     * 메뉴별 집계 증감 (행을 읽지 않고 한 문장으로), 행이 아직 없으면 0 을 반환한다.
+     */
+    @Modifying
+    @Query("""
+            UPDATE DailyMenuSales m
+            SET m.menuName = :menuName,
+                m.quantity = m.quantity + :quantity,
+                m.revenue = m.revenue + :revenue
+            WHERE m.salesDate = :salesDate AND m.menuId = :menuId
+            """)
+    int increment(LocalDate salesDate, Long menuId, String menuName, long quantity, long revenue);
+}
@@ -0,0 +1,25 @@
+package com.example.smalltest.repository;
+
+import com.example.smalltest.domain.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    /**
+     * 일별 집계 증감 (행을 읽지 않고 한 문장으로), 그 날짜의 행이 아직 없으면 0 을 반환한다.
+     */
+    @Modifying
+    @Query("""
+            UPDATE DailySales d
+            SET d.completedOrders = d.completedOrders + :completedOrders,
+                d.cancelledOrders = d.cancelledOrders + :cancelledOrders,
+                d.quantity = d.quantity + :quantity,
+                d.revenue = d.revenue + :revenue
+            WHERE d.salesDate = :salesDate
+            """)
+    int increment(LocalDate salesDate, long completedOrders, long cancelledOrders, long quantity, long revenue);
+}
@@ -0,0 +1,27 @@
+package com.example.smalltest.repository;
+
+import com.example.smalltest.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * 만료된 키 하나 삭제 (같은 키를 다시 쓰기 전에, 바로 실행되므로 같은 트랜잭션에서 다시 INSERT 할 수 있다)
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt <= :now")
+    int deleteExpired(String key, LocalDateTime now);
+
+    /**
+     * 만료된 키 정리
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteAllExpired(LocalDateTime now);
+}
@@ -1,11 +1,26 @@
 package com.example.smalltest.repository;
 
+import com.example.smalltest.domain.AttachmentStatus;
 import com.example.smalltest.domain.Order;
 import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.OrderExportRow;
+import com.example.smalltest.dto.OrderSalesRow;
+import com.example.smalltest.dto.OrderStatusView;
+import com.example.smalltest.dto.OrderSummaryResponse;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order,Long> {
 
@@ -19,9 +34,123 @@ public interface OrderRepository extends JpaRepository<Order,Long> {
      */
     List<Order> findByStatus(OrderStatus status);
 
+    /**
+     * 고객 이름으로 주문 요약 조회 (최신순, 키셋 페이지네이션)
+     * (orderedAt, id) 가 커서보다 작은 주문부터 limit 개, 주문 항목은 읽지 않는다.
+     * 앞의 o.orderedAt <= :orderedAt 는 결과를 바꾸지 않지만, OR 조건만으로는 인덱스 범위 탐색을 못 하는 DB 를 위해 둔다.
+     */
+    @Query("""
+            SELECT new com.example.smalltest.dto.OrderSummaryResponse(o.id, o.customerName, o.status, o.totalPrice, o.orderedAt)
+            FROM Order o
+            WHERE o.customerName = :customerName
+              AND o.orderedAt <= :orderedAt
+              AND (o.orderedAt < :orderedAt OR (o.orderedAt = :orderedAt AND o.id < :id))
+            ORDER BY o.orderedAt DESC, o.id DESC
+            """)
+    List<OrderSummaryResponse> findSummariesByCustomerName(String customerName, LocalDateTime orderedAt, Long id, Limit limit);
+
+    /**
+     * 주문 상태로 주문 요약 조회 (최신순, 키셋 페이지네이션)
+     */
+    @Query("""
+            SELECT new com.example.smalltest.dto.OrderSummaryResponse(o.id, o.customerName, o.status, o.totalPrice, o.orderedAt)
+            FROM Order o
+            WHERE o.status = :status
+              AND o.orderedAt <= :orderedAt
+              AND (o.orderedAt < :orderedAt OR (o.orderedAt = :orderedAt AND o.id < :id))
+            ORDER BY o.orderedAt DESC, o.id DESC
+            """)
+    List<OrderSummaryResponse> findSummariesByStatus(OrderStatus status, LocalDateTime orderedAt, Long id, Limit limit);
+
+    /**
+     * 여러 주문을 주문 항목과 함께 한 번에 조회 (목록 페이지의 주문 항목용 IN 쿼리)
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(Collection<Long> ids);
+
     /**
      * 주문 항목을 포함한 주문 조회 (N+1 문제 방지)
      */
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :id")
     Order findByIdWithItems(Long id);
+
+    /**
+     * 현재 상태가 expectedStatus 일 때만 상태 변경 (compare-and-set, 행 잠금 없이 한 문장으로)
+     * 그 사이에 다른 요청이 상태를 바꿨으면 0 을 반환한다.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.version = o.version + 1 WHERE o.id = :id AND o.status = :expectedStatus")
+    int compareAndSetStatus(Long id, OrderStatus expectedStatus, OrderStatus newStatus);
+
+    /**
+     * 여러 주문의 현재 상태만 조회 (주문 항목, 메뉴는 읽지 않는다)
+     */
+    @Query("SELECT new com.example.smalltest.dto.OrderStatusView(o.id, o.status) FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusView> findStatusesByIdIn(Collection<Long> ids);
+
+    /**
+     * 여러 주문을 id 순서로 잠그고 조회 (매출 집계가 걸린 일괄 상태 변경, 잠그지 않고 처리한 청크를 다시 처리할 때)
+     * id 순서로 잠가서 서로 겹치는 일괄 요청끼리 교착되지 않고, 커밋할 때까지 다른 요청이 상태를 바꾸지 못하므로
+     * 이어지는 compare-and-set 이 어떤 주문을 바꿨는지 정확히 알 수 있다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findAllByIdInForUpdate(Collection<Long> ids);
+
+    /**
+     * 현재 상태가 expectedStatus 인 주문들만 한 문장으로 상태 변경 (일괄 compare-and-set)
+     * 변경된 행 수를 반환하고, ids 보다 적으면 그 사이에 다른 요청이 상태를 바꾼 주문이 있다는 뜻이다.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.version = o.version + 1 WHERE o.id IN :ids AND o.status = :expectedStatus")
+    int compareAndSetStatuses(Collection<Long> ids, OrderStatus expectedStatus, OrderStatus newStatus);
+
+    /**
+     * 매출 재집계용으로 주어진 상태의 주문 항목을 주문 id 순서로 흘려 읽는다 (트랜잭션 안에서, 다 읽은 뒤 close)
+     * 결과 전체를 메모리에 올리지 않도록 fetch size 만큼씩 가져오고, 엔티티가 아니라서 영속성 컨텍스트에 쌓이지 않는다.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("""
+            SELECT new com.example.smalltest.dto.OrderSalesRow(o.id, o.status, o.orderedAt, i.menuId, i.menuName, i.menuPrice, i.quantity)
+            FROM OrderItem i JOIN i.order o
+            WHERE o.status IN :statuses
+            ORDER BY o.id
+            """)
+    Stream<OrderSalesRow> streamSalesRows(Collection<OrderStatus> statuses);
+
+    /**
+     * 주문 내보내기용으로 주문일이 [from, to) 인 주문과 주문 항목을 주문 id 순서로 흘려 읽는다 (트랜잭션 안에서, 다 읽은 뒤 close)
+     * 앞으로만 읽는 커서로 fetch size 만큼씩 가져오고, 엔티티가 아니라서 영속성 컨텍스트에 쌓이지 않는다.
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("""
+            SELECT new com.example.smalltest.dto.OrderExportRow(o.id, o.customerName, o.status, o.totalPrice, o.orderedAt,
+                i.menuId, i.menuName, i.menuPrice, i.quantity)
+            FROM Order o LEFT JOIN o.orderItems i
+            WHERE o.orderedAt >= :from AND o.orderedAt < :to
+            ORDER BY o.id, i.id
+            """)
+    Stream<OrderExportRow> streamExportRows(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * 주어진 주문 중 첨부 파일 업로드 상태가 attachmentStatus 인 주문 (재시작 후 업로드 복구용)
+     */
+    List<Order> findAllByIdInAndAttachmentStatus(Collection<Long> ids, AttachmentStatus attachmentStatus);
+
+    /**
+     * 주문일이 before 이전이고 첨부 파일 업로드 상태가 status 인 주문 id (재시작 후 멈춘 업로드 정리용)
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.attachmentStatus = :status AND o.orderedAt < :before")
+    List<Long> findIdsByAttachmentStatusOrderedBefore(AttachmentStatus status, LocalDateTime before);
+
+    /**
+     * 첨부 파일 업로드 상태 변경 (업로드 작업 스레드에서 호출)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.attachmentStatus = :status WHERE o.id = :id")
+    int updateAttachmentStatus(Long id, AttachmentStatus status);
 }
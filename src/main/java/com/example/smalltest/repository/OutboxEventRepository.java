@@ -0,0 +1,26 @@
+package com.example.smalltest.repository;
+
+import com.example.smalltest.domain.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * 전달할 이벤트를 오래된 순으로 limit 개 가져오면서 행 잠금 (SELECT ... FOR UPDATE SKIP LOCKED)
+     * 다른 인스턴스의 릴레이가 잠근 행은 기다리지 않고 건너뛰므로 여러 인스턴스가 겹치지 않게 나눠 가져간다.
+     * 잠금은 호출한 트랜잭션이 끝날 때 풀린다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    //잠금 대기 시간 -2 = SKIP LOCKED (Hibernate)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.createdAt, e.id")
+    List<OutboxEvent> claimBatch(Limit limit);
+}
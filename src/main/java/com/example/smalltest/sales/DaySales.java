@@ -0,0 +1,22 @@
+package com.example.smalltest.sales;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 하루치 매출 집계 (인메모리 롤업 한 칸)
+ */
+public record DaySales(LocalDate date,
+                       long completedOrders,
+                       long cancelledOrders,
+                       long quantity,
+                       long revenue,
+                       List<MenuSales> menus) {
+
+    public record MenuSales(Long menuId, String menuName, long quantity, long revenue) {
+    }
+
+    static DaySales empty(LocalDate date) {
+        return new DaySales(date, 0, 0, 0, 0, List.of());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.smalltest.sales;
+
+import com.example.smalltest.domain.DailyMenuSales;
+import com.example.smalltest.domain.DailyMenuSalesId;
+import com.example.smalltest.domain.DailySales;
+import com.example.smalltest.domain.Order;
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.OrderSalesRow;
+import com.example.smalltest.dto.SalesRebuildResponse;
+import com.example.smalltest.exception.SalesRebuildInProgressException;
+import com.example.smalltest.repository.DailyMenuSalesRepository;
+import com.example.smalltest.repository.DailySalesRepository;
+import com.example.smalltest.repository.OrderRepository;
+import com.example.smalltest.sales.SalesDelta.DayTotals;
+import com.example.smalltest.sales.SalesDelta.MenuTotals;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * 매출 집계 (일별 매출, 일별 메뉴 판매량) 증분 갱신과 재집계
+ * 주문 상태가 바뀐 트랜잭션에서 증감분만 UPDATE 하므로 주문 상태 변경과 집계가 함께 커밋되거나 함께 롤백된다.
+ * 재집계는 완료/취소된 주문 항목을 한 번 흘려 읽어서 메모리에서 합산한 뒤 집계 테이블을 통째로 바꾼다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesAggregator {
+
+    private final DailySalesRepository dailySalesRepository;
+    private final DailyMenuSalesRepository dailyMenuSalesRepository;
+    private final OrderRepository orderRepository;
+    private final SalesRollup salesRollup;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * 주문 하나의 상태 전환 반영 (매출과 상관없는 전환이면 아무것도 하지 않는다)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Order order, OrderStatus from, OrderStatus to) {
+        SalesDelta delta = new SalesDelta();
+        delta.addTransition(order, from, to);
+        apply(delta);
+    }
+
+    /**
+     * 증감분 반영, 호출한 트랜잭션에 함께 커밋된다
+     * 행이 이미 있으면 UPDATE 한 문장, 처음 나온 날짜/메뉴면 빈 행을 INSERT(이미 있으면 무시) 한 뒤 다시 UPDATE
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(SalesDelta delta) {
+        if (delta.isEmpty()) return;
+
+        for (Map.Entry<LocalDate, DayTotals> entry : delta.days().entrySet()) {
+            if (incrementDay(entry.getKey(), entry.getValue()) == 0) {
+                insertDayIfAbsent(entry.getKey());
+                incrementDay(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<DailyMenuSalesId, MenuTotals> entry : delta.menus().entrySet()) {
+            if (incrementMenu(entry.getKey(), entry.getValue()) == 0) {
+                insertMenuIfAbsent(entry.getKey(), entry.getValue().menuName);
+                incrementMenu(entry.getKey(), entry.getValue());
+            }
+        }
+        salesRollup.evictAfterCommit(delta.days().keySet());
+    }
+
+    private int incrementDay(LocalDate date, DayTotals totals) {
+        return dailySalesRepository.increment(date, totals.completedOrders, totals.cancelledOrders,
+                totals.quantity, totals.revenue);
+    }
+
+    private int incrementMenu(DailyMenuSalesId id, MenuTotals totals) {
+        return dailyMenuSalesRepository.increment(id.getSalesDate(), id.getMenuId(), totals.menuName,
+                totals.quantity, totals.revenue);
+    }
+
+    //다른 트랜잭션이 같은 행을 먼저 만들어도 실패하지 않도록 충돌 시 무시 (PostgreSQL ON CONFLICT, H2 는 MERGE 로 변환)
+    private void insertDayIfAbsent(LocalDate date) {
+        entityManager.createQuery("""
+                        INSERT INTO DailySales (salesDate, completedOrders, cancelledOrders, quantity, revenue)
+                        VALUES (:salesDate, 0, 0, 0, 0)
+                        ON CONFLICT (salesDate) DO NOTHING
+                        """)
+                .setParameter("salesDate", date)
+                .executeUpdate();
+    }
+
+    private void insertMenuIfAbsent(DailyMenuSalesId id, String menuName) {
+        entityManager.createQuery("""
+                        INSERT INTO DailyMenuSales (salesDate, menuId, menuName, quantity, revenue)
+                        VALUES (:salesDate, :menuId, :menuName, 0, 0)
+                        ON CONFLICT (salesDate, menuId) DO NOTHING
+                        """)
+                .setParameter("salesDate", id.getSalesDate())
+                .setParameter("menuId", id.getMenuId())
+                .setParameter("menuName", menuName)
+                .executeUpdate();
+    }
+
+    /**
+     * 집계 테이블을 주문 데이터로 다시 만든다 (한 번에 하나만, 진행 중이면 409)
+     * 읽기와 교체를 한 트랜잭션에서 하지만, 흘려 읽는 도중에 커밋된 상태 변경은 빠질 수 있으므로 한가한 시간에 실행한다.
+     */
+    public SalesRebuildResponse rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) throw new SalesRebuildInProgressException();
+        try {
+            long start = System.nanoTime();
+            SalesRebuildResponse response = transactionTemplate.execute(status -> replaceAll(start));
+            salesRollup.invalidateAll();
+            log.info("매출 집계 재집계 완료 orders={} days={} menus={} elapsed={}ms", response.getOrders(),
+                    response.getDays(), response.getMenus(), response.getElapsedMillis());
+            return response;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private SalesRebuildResponse replaceAll(long start) {
+        //1. 완료/취소된 주문 항목을 주문 id 순서로 흘려 읽으면서 합산 (주문 수는 주문 id 가 바뀔 때 센다)
+        SalesDelta totals = new SalesDelta();
+        long orders = 0;
+        try (Stream<OrderSalesRow> rows = orderRepository.streamSalesRows(List.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED))) {
+            Long lastOrderId = null;
+            Iterator<OrderSalesRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                OrderSalesRow row = iterator.next();
+                LocalDate date = row.orderedAt().toLocalDate();
+                if (!row.orderId().equals(lastOrderId)) {
+                    totals.addOrder(date, row.status());
+                    lastOrderId = row.orderId();
+                    orders++;
+                }
+                if (row.status() == OrderStatus.COMPLETED) {
+                    totals.addItem(date, row.menuId(), row.menuName(), row.menuPrice(), row.quantity(), 1);
+                }
+            }
+        }
+
+        //2. 집계 테이블을 비우고 합산 결과로 다시 저장 (JDBC 배치)
+        dailyMenuSalesRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+        dailySalesRepository.saveAll(totals.days().entrySet().stream()
+                .map(entry -> DailySales.builder()
+                        .salesDate(entry.getKey())
+                        .completedOrders(entry.getValue().completedOrders)
+                        .cancelledOrders(entry.getValue().cancelledOrders)
+                        .quantity(entry.getValue().quantity)
+                        .revenue(entry.getValue().revenue)
+                        .build())
+                .toList());
+        dailyMenuSalesRepository.saveAll(totals.menus().entrySet().stream()
+                .map(entry -> DailyMenuSales.builder()
+                        .salesDate(entry.getKey().getSalesDate())
+                        .menuId(entry.getKey().getMenuId())
+                        .menuName(entry.getValue().menuName)
+                        .quantity(entry.getValue().quantity)
+                        .revenue(entry.getValue().revenue)
+                        .build())
+                .toList());
+
+        return new SalesRebuildResponse(orders, totals.days().size(), totals.menus().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.smalltest.sales;
+
+import com.example.smalltest.domain.DailyMenuSalesId;
+import com.example.smalltest.domain.Order;
+import com.example.smalltest.domain.OrderItem;
+import com.example.smalltest.domain.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 한 트랜잭션에서 바뀐 매출 집계 증감분 (날짜별, 날짜+메뉴별)
+ * 같은 날짜/메뉴는 메모리에서 먼저 합쳐서 집계 행마다 UPDATE 한 번만 보낸다.
+ * COMPLETED 로 들어오면 더하고 COMPLETED 에서 나가면 뺀다. CANCELLED 는 취소 주문 수만 센다.
+ */
+public class SalesDelta {
+
+    static final class DayTotals {
+        long completedOrders;
+        long cancelledOrders;
+        long quantity;
+        long revenue;
+    }
+
+    static final class MenuTotals {
+        String menuName;
+        long quantity;
+        long revenue;
+    }
+
+    private final Map<LocalDate, DayTotals> days = new HashMap<>();
+    private final Map<DailyMenuSalesId, MenuTotals> menus = new HashMap<>();
+
+    /**
+     * 이 상태 전환이 매출 집계를 바꾸는지 (주문 항목을 읽어야 하는지 미리 확인할 때)
+     */
+    public static boolean affects(OrderStatus from, OrderStatus to) {
+        return completedSign(from, to) != 0 || cancelledSign(from, to) != 0;
+    }
+
+    /**
+     * to 로 가는 허용된 전환 중에 매출 집계를 바꾸는 전환이 있는지
+     */
+    public static boolean affectsTransitionsTo(OrderStatus to) {
+        for (OrderStatus from : OrderStatus.values()) {
+            if (from.canTransitionTo(to) && affects(from, to)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 주문 상태 전환 반영, order 는 주문 항목을 읽을 수 있어야 한다 (COMPLETED 로 들어오거나 나갈 때)
+     */
+    public void addTransition(Order order, OrderStatus from, OrderStatus to) {
+        int completed = completedSign(from, to);
+        int cancelled = cancelledSign(from, to);
+        if (completed == 0 && cancelled == 0) return;
+
+        LocalDate date = order.getOrderedAt().toLocalDate();
+        DayTotals day = day(date);
+        day.completedOrders += completed;
+        day.cancelledOrders += cancelled;
+        if (completed == 0) return;
+        for (OrderItem item : order.getOrderItems()) {
+            addItem(date, item.getMenuId(), item.getMenuName(), item.getMenuPrice(), item.getQuantity(), completed);
+        }
+    }
+
+    void addOrder(LocalDate date, OrderStatus status) {
+        if (status == OrderStatus.COMPLETED) day(date).completedOrders++;
+        else if (status == OrderStatus.CANCELLED) day(date).cancelledOrders++;
+    }
+
+    void addItem(LocalDate date, Long menuId, String menuName, int menuPrice, int quantity, int sign) {
+        long itemQuantity = (long) quantity * sign;
+        long itemRevenue = (long) menuPrice * quantity * sign;
+        DayTotals day = day(date);
+        day.quantity += itemQuantity;
+        day.revenue += itemRevenue;
+        MenuTotals menu = menus.computeIfAbsent(new DailyMenuSalesId(date, menuId), id -> new MenuTotals());
+        menu.menuName = menuName;
+        menu.quantity += itemQuantity;
+        menu.revenue += itemRevenue;
+    }
+
+    public boolean isEmpty() {
+        return days.isEmpty();
+    }
+
+    Map<LocalDate, DayTotals> days() {
+        return days;
+    }
+
+    Map<DailyMenuSalesId, MenuTotals> menus() {
+        return menus;
+    }
+
+    private DayTotals day(LocalDate date) {
+        return days.computeIfAbsent(date, d -> new DayTotals());
+    }
+
+    private static int completedSign(OrderStatus from, OrderStatus to) {
+        return (to == OrderStatus.COMPLETED ? 1 : 0) - (from == OrderStatus.COMPLETED ? 1 : 0);
+    }
+
+    private static int cancelledSign(OrderStatus from, OrderStatus to) {
+        return (to == OrderStatus.CANCELLED ? 1 : 0) - (from == OrderStatus.CANCELLED ? 1 : 0);
+    }
+}
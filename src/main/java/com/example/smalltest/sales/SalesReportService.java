@@ -0,0 +1,77 @@
+package com.example.smalltest.sales;
+
+import com.example.smalltest.dto.DailySalesResponse;
+import com.example.smalltest.dto.MenuSalesResponse;
+import com.example.smalltest.dto.SalesRebuildResponse;
+import com.example.smalltest.exception.InvalidReportRangeException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 매출 리포트 (일별 매출, 인기 메뉴)
+ * orders / order_items 를 읽지 않고 인메모리 롤업(없으면 집계 테이블)에서 합산한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesReportService {
+
+    //인기 메뉴 최대 개수
+    private static final int MAX_TOP_MENUS = 100;
+
+    private final SalesRollup salesRollup;
+    private final SalesAggregator salesAggregator;
+
+    //한 번에 조회할 수 있는 최대 기간 (일)
+    @Value("${app.sales.report.max-days:366}")
+    private int maxDays = 366;
+
+    public List<DailySalesResponse> getDailySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return salesRollup.days(from, to).stream().map(DailySalesResponse::from).toList();
+    }
+
+    /**
+     * 기간 내 메뉴별 판매 수량 합계 상위 limit 개 (수량이 같으면 매출 순)
+     */
+    public List<MenuSalesResponse> getTopMenus(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        Map<Long, MenuSalesResponse> totals = new HashMap<>();
+        for (DaySales day : salesRollup.days(from, to)) {
+            for (DaySales.MenuSales menu : day.menus()) {
+                //가장 최근 날짜의 메뉴 이름을 쓴다 (날짜 오름차순으로 합산)
+                totals.merge(menu.menuId(),
+                        new MenuSalesResponse(menu.menuId(), menu.menuName(), menu.quantity(), menu.revenue()),
+                        (sum, next) -> new MenuSalesResponse(sum.getMenuId(), next.getMenuName(),
+                                sum.getQuantity() + next.getQuantity(), sum.getRevenue() + next.getRevenue()));
+            }
+        }
+        return totals.values().stream()
+                .filter(menu -> menu.getQuantity() > 0)
+                .sorted(Comparator.comparingLong(MenuSalesResponse::getQuantity).reversed()
+                        .thenComparing(Comparator.comparingLong(MenuSalesResponse::getRevenue).reversed())
+                        .thenComparing(MenuSalesResponse::getMenuId))
+                .limit(Math.max(1, Math.min(limit, MAX_TOP_MENUS)))
+                .toList();
+    }
+
+    public SalesRebuildResponse rebuild() {
+        return salesAggregator.rebuild();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidReportRangeException("시작일이 종료일보다 늦습니다.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxDays) {
+            throw new InvalidReportRangeException("리포트는 최대 " + maxDays + "일까지 조회할 수 있습니다.");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.smalltest.sales;
+
+import com.example.smalltest.domain.DailyMenuSales;
+import com.example.smalltest.domain.DailySales;
+import com.example.smalltest.repository.DailyMenuSalesRepository;
+import com.example.smalltest.repository.DailySalesRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 매출 집계 인메모리 롤업 (날짜별 read-through 캐시)
+ * 리포트는 집계 테이블을 날짜마다 읽지 않고 이 롤업에서 합산한다. 캐시에 없는 날짜만 IN 쿼리로 한 번에 읽는다.
+ * 집계가 바뀐 날짜는 커밋된 뒤에 버리고, 다른 인스턴스에서 바뀐 집계도 expire-after-write 이후에는 반영된다.
+ */
+@Component
+public class SalesRollup {
+
+    public static final String CACHE_NAME = "salesRollup";
+
+    private final DailySalesRepository dailySalesRepository;
+    private final DailyMenuSalesRepository dailyMenuSalesRepository;
+    private final Cache<LocalDate, DaySales> cache;
+
+    public SalesRollup(DailySalesRepository dailySalesRepository,
+                       DailyMenuSalesRepository dailyMenuSalesRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.sales.rollup.maximum-days:400}") long maximumDays,
+                       @Value("${app.sales.rollup.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.dailySalesRepository = dailySalesRepository;
+        this.dailyMenuSalesRepository = dailyMenuSalesRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumDays)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * from ~ to (포함) 날짜별 집계, 주문이 없는 날은 0 으로 채운다
+     */
+    public List<DaySales> days(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = from.datesUntil(to.plusDays(1)).toList();
+        Map<LocalDate, DaySales> loaded = cache.getAll(dates, this::load);
+        return dates.stream().map(loaded::get).toList();
+    }
+
+    private Map<LocalDate, DaySales> load(Set<? extends LocalDate> missingDates) {
+        List<LocalDate> dates = List.copyOf(missingDates);
+        Map<LocalDate, List<DaySales.MenuSales>> menusByDate = new HashMap<>();
+        for (DailyMenuSales menu : dailyMenuSalesRepository.findBySalesDateIn(dates)) {
+            menusByDate.computeIfAbsent(menu.getSalesDate(), date -> new ArrayList<>())
+                    .add(new DaySales.MenuSales(menu.getMenuId(), menu.getMenuName(), menu.getQuantity(), menu.getRevenue()));
+        }
+
+        //집계 행이 없는 날짜도 빈 집계로 캐시해서 다시 조회하지 않는다
+        Map<LocalDate, DaySales> loaded = new HashMap<>();
+        for (LocalDate date : dates) {
+            loaded.put(date, DaySales.empty(date));
+        }
+        for (DailySales day : dailySalesRepository.findAllById(dates)) {
+            List<DaySales.MenuSales> menus = menusByDate.getOrDefault(day.getSalesDate(), List.of()).stream()
+                    .sorted(Comparator.comparing(DaySales.MenuSales::menuId))
+                    .toList();
+            loaded.put(day.getSalesDate(), new DaySales(day.getSalesDate(), day.getCompletedOrders(),
+                    day.getCancelledOrders(), day.getQuantity(), day.getRevenue(), menus));
+        }
+        return loaded;
+    }
+
+    /**
+     * 트랜잭션 안에서 호출되면 커밋된 뒤에 버린다 (커밋 전에 버리면 다른 스레드가 변경 전 집계를 다시 올린다)
+     */
+    public void evictAfterCommit(Collection<LocalDate> dates) {
+        List<LocalDate> evicted = List.copyOf(dates);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateAll(evicted);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll(evicted);
+            }
+        });
+    }
+
+    /**
+     * 이 인스턴스의 롤업만 비운다 (재집계 후)
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
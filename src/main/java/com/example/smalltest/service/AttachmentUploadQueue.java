@@ -0,0 +1,345 @@
+package com.example.smalltest.service;
+
+import com.example.smalltest.domain.AttachmentStatus;
+import com.example.smalltest.domain.Order;
+import com.example.smalltest.exception.AttachmentQueueFullException;
+import com.example.smalltest.repository.OrderRepository;
+import com.example.smalltest.storage.ObjectStorage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주문 첨부 파일 업로드 대기열
+ * 주문 저장(커밋)이 끝난 뒤 백그라운드 스레드에서 업로드하고, 실패하면 지수 백오프로 재시도한다.
+ * 대기열 크기를 넘는 요청은 주문 저장 전에 거절해서(503) 스풀 파일이 무한정 쌓이지 않게 한다.
+ * 커밋된 주문의 스풀 파일은 주문 id 로 이름을 바꿔 두고, 재시작하면 남은 파일로 업로드를 이어서 한다.
+ */
+@Slf4j
+@Component
+public class AttachmentUploadQueue {
+
+    /**
+     * 대기열 자리를 확보하고 스풀 디렉터리로 복사해 둔 첨부 파일
+     */
+    public record PendingAttachment(String key, Path spooledFile, String contentType) {
+    }
+
+    private record UploadTask(Long orderId, PendingAttachment attachment, int attempt) {
+
+        UploadTask nextAttempt() {
+            return new UploadTask(orderId, attachment, attempt + 1);
+        }
+    }
+
+    private static final String ORDER_FILE_PREFIX = "order-";
+    private static final String ORDER_FILE_SUFFIX = ".spool";
+
+    private final ObjectStorage objectStorage;
+    private final OrderRepository orderRepository;
+    private final Semaphore slots;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Path spoolDirectory;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration reserveTimeout;
+    private final Duration staleAfter;
+    //이 시각 전에 만들어진 스풀 파일은 이전 실행에서 남은 파일
+    private final Instant startedAt = Instant.now();
+    //저장소로 전송 중인 업로드 수 (async 엔진은 워커 스레드를 점유하지 않으므로 따로 센다)
+    private final AtomicInteger uploading = new AtomicInteger();
+
+    public AttachmentUploadQueue(ObjectStorage objectStorage,
+                                 OrderRepository orderRepository,
+                                 @Value("${app.attachment.upload.workers:4}") int workers,
+                                 @Value("${app.attachment.upload.capacity:100}") int capacity,
+                                 @Value("${app.attachment.upload.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.attachment.upload.initial-backoff:500ms}") Duration initialBackoff,
+                                 @Value("${app.attachment.upload.max-backoff:30s}") Duration maxBackoff,
+                                 @Value("${app.attachment.upload.reserve-timeout:200ms}") Duration reserveTimeout,
+                                 @Value("${app.attachment.upload.stale-after:1h}") Duration staleAfter,
+                                 @Value("${app.attachment.upload.spool-dir:${java.io.tmpdir}/small-test-attachments}") String spoolDirectory) throws IOException {
+        this.objectStorage = objectStorage;
+        this.orderRepository = orderRepository;
+        this.slots = new Semaphore(capacity);
+        //재시도 지연에 스케줄러가 필요하고 workers 가 곧 동시 업로드 수 제한이므로 가상 스레드 모드에서도 플랫폼 스레드
+        //(스레드 수가 workers 개로 고정이라 가상 스레드로 바꿔도 풀에 묶여 재사용될 뿐 얻는 것이 없다)
+        this.executor = new ScheduledThreadPoolExecutor(workers, new CustomizableThreadFactory("attachment-upload-"));
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.reserveTimeout = reserveTimeout;
+        this.staleAfter = staleAfter;
+        this.spoolDirectory = Files.createDirectories(Path.of(spoolDirectory));
+    }
+
+    /**
+     * 대기열 자리를 확보하고 첨부 파일을 스풀 파일로 복사
+     * 요청이 끝나면 MultipartFile 의 임시 파일은 지워지기 때문에 업로드 전까지 보관할 복사본이 필요하다.
+     */
+    public PendingAttachment prepare(MultipartFile file) {
+        //1. 대기열 자리 확보 (가득 차 있으면 잠깐 기다렸다가 거절)
+        acquireSlot();
+
+        //2. 스풀 파일로 복사
+        Path spooledFile = null;
+        try {
+            spooledFile = Files.createTempFile(spoolDirectory, "upload-", ".tmp");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, spooledFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            deleteQuietly(spooledFile);
+            slots.release();
+            throw new RuntimeException(e);
+        }
+
+        //3. 고유한 객체 키 생성(UUID + 원본 파일명)
+        String key = UUID.randomUUID() + "_" + file.getOriginalFilename();
+        return new PendingAttachment(key, spooledFile, file.getContentType());
+    }
+
+    /**
+     * 업로드 시작, 트랜잭션 안에서 호출되면 커밋 이후에 시작하고 롤백되면 버린다.
+     */
+    public void submit(Long orderId, PendingAttachment attachment) {
+        UploadTask task = new UploadTask(orderId, assignToOrder(orderId, attachment), 1);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(task, Duration.ZERO);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) schedule(task, Duration.ZERO);
+                else discard(task.attachment());
+            }
+        });
+    }
+
+    //재시작 후 복구할 수 있도록 스풀 파일 이름을 주문 id 로 바꾼다 (실패하면 그대로 두고 복구 대상에서만 빠진다)
+    private PendingAttachment assignToOrder(Long orderId, PendingAttachment attachment) {
+        try {
+            Path orderFile = Files.move(attachment.spooledFile(), spoolFile(orderId), StandardCopyOption.REPLACE_EXISTING);
+            return new PendingAttachment(attachment.key(), orderFile, attachment.contentType());
+        } catch (IOException e) {
+            log.warn("스풀 파일 이름 변경 실패 orderId={} {}", orderId, attachment.spooledFile(), e);
+            return attachment;
+        }
+    }
+
+    /**
+     * 이전 실행에서 끝나지 않은 업로드 복구 (시작 직후 한 번)
+     * 스풀 파일이 남아 있는 PENDING_UPLOAD 주문은 다시 대기열에 넣고, 주문이 없거나 이미 끝난 주문의 스풀 파일과
+     * 요청 도중에 남은 임시 파일은 지운다. 스풀 파일 없이 staleAfter 넘게 PENDING_UPLOAD 인 주문은 FAILED 로 바꾼다
+     * (스풀 디렉터리는 인스턴스마다 따로라서, 다른 인스턴스가 아직 업로드 중인 주문은 건드리지 않도록 오래된 주문만).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        try {
+            //1. 이전 실행에서 남은 스풀 파일
+            Map<Long, Path> spooled = new HashMap<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory)) {
+                for (Path file : files) {
+                    if (!Files.getLastModifiedTime(file).toInstant().isBefore(startedAt)) continue;
+                    Long orderId = orderIdOf(file);
+                    if (orderId == null) deleteQuietly(file);
+                    else spooled.put(orderId, file);
+                }
+            }
+
+            //2. 아직 PENDING_UPLOAD 인 주문은 다시 업로드 (자리가 없으면 파일을 남겨 두고 다음 시작 때)
+            Set<Long> recovered = new HashSet<>();
+            int resubmitted = 0;
+            if (!spooled.isEmpty()) {
+                for (Order order : orderRepository.findAllByIdInAndAttachmentStatus(spooled.keySet(), AttachmentStatus.PENDING_UPLOAD)) {
+                    Path file = spooled.remove(order.getId());
+                    recovered.add(order.getId());
+                    if (!slots.tryAcquire()) continue;
+                    String key = order.getAttachmentKey();
+                    schedule(new UploadTask(order.getId(), new PendingAttachment(key, file, contentTypeOf(key)), 1), Duration.ZERO);
+                    resubmitted++;
+                }
+            }
+            spooled.values().forEach(this::deleteQuietly);
+
+            //3. 스풀 파일 없이 오래 남은 PENDING_UPLOAD 는 더 진행될 수 없으므로 FAILED
+            int failed = 0;
+            for (Long orderId : orderRepository.findIdsByAttachmentStatusOrderedBefore(
+                    AttachmentStatus.PENDING_UPLOAD, LocalDateTime.now().minus(staleAfter))) {
+                if (recovered.contains(orderId)) continue;
+                orderRepository.updateAttachmentStatus(orderId, AttachmentStatus.FAILED);
+                failed++;
+            }
+            if (resubmitted > 0 || failed > 0) {
+                log.info("첨부 파일 업로드 복구 resubmitted={} failed={}", resubmitted, failed);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("첨부 파일 업로드 복구 실패", e);
+        }
+    }
+
+    private Path spoolFile(Long orderId) {
+        return spoolDirectory.resolve(ORDER_FILE_PREFIX + orderId + ORDER_FILE_SUFFIX);
+    }
+
+    //주문 id 로 이름을 바꾼 스풀 파일이면 주문 id, 아니면 null
+    private static Long orderIdOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(ORDER_FILE_PREFIX) || !name.endsWith(ORDER_FILE_SUFFIX)) return null;
+        try {
+            return Long.parseLong(name.substring(ORDER_FILE_PREFIX.length(), name.length() - ORDER_FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    //복구할 때는 요청의 Content-Type 이 없으므로 객체 키의 파일명으로 추정
+    private static String contentTypeOf(String key) {
+        String contentType = URLConnection.guessContentTypeFromName(key);
+        return contentType != null ? contentType : "application/octet-stream";
+    }
+
+    /**
+     * 주문 저장에 실패했을 때 확보한 자리와 스풀 파일을 반환
+     */
+    public void discard(PendingAttachment attachment) {
+        deleteQuietly(attachment.spooledFile());
+        slots.release();
+    }
+
+    /**
+     * 업로드 대기 + 진행 중인 첨부 파일 수
+     */
+    public int inFlight() {
+        return executor.getQueue().size() + uploading.get();
+    }
+
+    private void acquireSlot() {
+        try {
+            if (!slots.tryAcquire(reserveTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new AttachmentQueueFullException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AttachmentQueueFullException();
+        }
+    }
+
+    private void schedule(UploadTask task, Duration delay) {
+        if (!trySchedule(() -> upload(task), delay)) defer(task);
+    }
+
+    private boolean trySchedule(Runnable work, Duration delay) {
+        try {
+            executor.schedule(work, delay.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    //종료 중이라 작업을 받지 않으면 자리만 반환하고 스풀 파일은 남겨 둔다
+    //(주문은 PENDING_UPLOAD 로 남고 다음 시작 때 recover 가 같은 키로 다시 올린다)
+    private void defer(UploadTask task) {
+        log.warn("종료 중이라 첨부 파일 업로드를 다음 시작으로 미룸 orderId={} key={}", task.orderId(), task.attachment().key());
+        slots.release();
+    }
+
+    //async 엔진이면 전송을 시작만 하고 워커를 바로 반환, blocking 엔진이면 워커에서 전송을 끝낸다
+    //완료 처리(DB 상태 변경)는 SDK 스레드가 아니라 워커 스레드에서 한다
+    private void upload(UploadTask task) {
+        PendingAttachment attachment = task.attachment();
+        uploading.incrementAndGet();
+        objectStorage.putAsync(attachment.key(), attachment.spooledFile(), attachment.contentType())
+                .whenComplete((done, e) -> {
+                    uploading.decrementAndGet();
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    boolean scheduled = trySchedule(() -> {
+                        if (cause == null) complete(task, AttachmentStatus.UPLOADED);
+                        else retryOrFail(task, cause);
+                    }, Duration.ZERO);
+                    if (scheduled) return;
+                    //종료 중: 이미 올라간 파일은 여기서 바로 끝내고, 재시도할 업로드는 다음 시작으로 미룬다
+                    if (cause == null) complete(task, AttachmentStatus.UPLOADED);
+                    else defer(task);
+                });
+    }
+
+    private void retryOrFail(UploadTask task, Throwable e) {
+        if (task.attempt() >= maxAttempts) {
+            log.error("첨부 파일 업로드 실패 orderId={} key={} attempts={}",
+                    task.orderId(), task.attachment().key(), task.attempt(), e);
+            complete(task, AttachmentStatus.FAILED);
+            return;
+        }
+        Duration backoff = backoff(task.attempt());
+        log.warn("첨부 파일 업로드 재시도 orderId={} attempt={} backoff={}: {}",
+                task.orderId(), task.attempt(), backoff, e.getMessage());
+        schedule(task.nextAttempt(), backoff);
+    }
+
+    //initialBackoff * 2^(attempt-1), 최대 maxBackoff
+    private Duration backoff(int attempt) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void complete(UploadTask task, AttachmentStatus status) {
+        try {
+            orderRepository.updateAttachmentStatus(task.orderId(), status);
+        } catch (Exception e) {
+            log.error("첨부 파일 상태 변경 실패 orderId={} status={}", task.orderId(), status, e);
+        } finally {
+            discard(task.attachment());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("스풀 파일 삭제 실패 {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("종료 시점에 남아 있는 첨부 파일 업로드 {}건", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+}
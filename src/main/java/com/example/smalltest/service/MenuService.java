@@ -0,0 +1,37 @@
+package com.example.smalltest.service;
+
+import com.example.smalltest.domain.Menu;
+import com.example.smalltest.repository.MenuRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 메뉴 변경 서비스
+ * save 시점에 MenuChangedEvent 가 발행되어 메뉴 캐시가 무효화된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MenuService {
+
+    private final MenuRepository menuRepository;
+
+    @Transactional
+    public Menu updateAvailability(Long menuId, boolean available) {
+        Menu menu = getMenu(menuId);
+        menu.updateAvailability(available);
+        return menuRepository.save(menu);
+    }
+
+    @Transactional
+    public Menu updatePrice(Long menuId, int price) {
+        Menu menu = getMenu(menuId);
+        menu.updatePrice(price);
+        return menuRepository.save(menu);
+    }
+
+    private Menu getMenu(Long menuId) {
+        return menuRepository.findById(menuId)
+                .orElseThrow(() -> new RuntimeException("존재하지 않는 메뉴 " + menuId));
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.smalltest.service;
+
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 주문 이벤트 실시간 전송 (SSE, 주방/픽업 화면)
+ * 커밋된 주문 생성/상태 변경을 구독 중인 화면에 밀어 주므로 화면마다 주기적으로 목록을 조회하지 않아도 된다.
+ * 구독자마다 크기가 정해진 버퍼를 두고, 느린 화면의 버퍼가 가득 차면 밀린 이벤트를 버리고 resync 이벤트를 보낸다.
+ * 최근 이벤트는 replaySize 개까지 보관해서 재연결 시 Last-Event-ID 이후부터 이어서 보낸다.
+ * 이벤트 번호는 재시작하면 1 부터 다시 붙으므로 SSE id 는 "기동 식별자-번호" 로 보내고, 기동 식별자가 다르면 resync 한다.
+ */
+@Slf4j
+@Component
+public class OrderEventBroadcaster {
+
+    //버퍼가 넘쳤거나 이어받을 수 없을 때 보내는 이벤트, 화면은 목록을 다시 조회해야 한다
+    static final String RESYNC_EVENT = "resync";
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    //이벤트 번호 발급, 최근 이벤트 보관, 구독자 버퍼 적재를 한 순서로 맞추는 잠금
+    private final ReentrantLock lock = new ReentrantLock();
+    //기동할 때마다 새로 정하는 식별자, 재시작 전의 Last-Event-ID 를 이번 번호와 섞지 않는다
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final OrderEvent[] recentEvents;
+    private volatile long lastEventId;
+    private final ScheduledThreadPoolExecutor executor;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Counter resyncs;
+
+    public OrderEventBroadcaster(@Value("${app.order.events.buffer-size:256}") int bufferSize,
+                                 @Value("${app.order.events.replay-size:1000}") int replaySize,
+                                 @Value("${app.order.events.senders:4}") int senders,
+                                 @Value("${app.order.events.heartbeat:15s}") Duration heartbeat,
+                                 @Value("${app.order.events.timeout:30m}") Duration timeout,
+                                 MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.recentEvents = new OrderEvent[replaySize];
+        this.executor = new ScheduledThreadPoolExecutor(senders, new CustomizableThreadFactory("order-events-"));
+        //연결이 끊긴 화면을 찾아내고 프록시가 유휴 연결을 끊지 않도록 주기적으로 주석을 보낸다
+        this.executor.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        this.resyncs = Counter.builder("order.events.resyncs")
+                .description("버퍼가 넘치거나 이어받을 수 없어서 resync 를 보낸 횟수")
+                .register(meterRegistry);
+        Gauge.builder("order.events.subscribers", subscribers, List::size)
+                .description("주문 이벤트 구독 중인 화면 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 주문 이벤트 구독
+     * @param statuses 받을 상태 (비어 있으면 전체), 이 상태로 들어오거나 나가는 변경을 받는다
+     * @param lastEventId 마지막으로 받은 SSE id (재연결 시), 다른 기동에서 받았거나 보관 중인 범위를 벗어나면 resync
+     */
+    public SseEmitter subscribe(Collection<OrderStatus> statuses, String lastEventId) {
+        return subscribe(new SseEmitter(timeout.toMillis()), statuses, lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Collection<OrderStatus> statuses, String lastEventId) {
+        Set<OrderStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.noneOf(OrderStatus.class) : EnumSet.copyOf(statuses);
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        lock.lock();
+        try {
+            if (lastEventId != null) replay(subscriber, lastEventId);
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * 주문 이벤트 발행, 트랜잭션 안에서 호출되면 커밋된 뒤에 보내고 롤백되면 버린다.
+     */
+    public void publish(OrderEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            broadcast(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                broadcast(event);
+            }
+        });
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void broadcast(OrderEvent event) {
+        lock.lock();
+        try {
+            OrderEvent numbered = event.toBuilder().id(lastEventId + 1).build();
+            recentEvents[(int) (numbered.getId() % recentEvents.length)] = numbered;
+            lastEventId = numbered.getId();
+            //버퍼에 넣기만 하고 전송은 전송 스레드에서 (느린 화면이 발행하는 쪽을 막지 않는다)
+            for (Subscriber subscriber : subscribers) {
+                if (numbered.matches(subscriber.statuses)) subscriber.offer(numbered);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * SSE id, "기동 식별자-이벤트 번호"
+     */
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    //lastEventId 다음 이벤트부터 버퍼에 다시 넣는다, 다른 기동의 id 거나 이미 지워진 번호면 resync
+    private void replay(Subscriber subscriber, String lastSeenId) {
+        long fromEventId = sequenceOf(lastSeenId);
+        long oldest = Math.max(1, lastEventId - recentEvents.length + 1);
+        if (fromEventId < 0 || fromEventId > lastEventId || fromEventId + 1 < oldest) {
+            subscriber.requestResync();
+            return;
+        }
+        for (long id = fromEventId + 1; id <= lastEventId; id++) {
+            OrderEvent event = recentEvents[(int) (id % recentEvents.length)];
+            if (event.matches(subscriber.statuses)) subscriber.offer(event);
+        }
+    }
+
+    //이번 기동에서 보낸 id 면 이벤트 번호, 아니면 -1
+    private long sequenceOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) return -1;
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue.set(true);
+            subscriber.scheduleDrain();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        executor.shutdownNow();
+    }
+
+    /**
+     * 구독 중인 화면 하나, 버퍼는 발행 스레드가 채우고 전송 스레드 하나가 비운다
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<OrderStatus> statuses;
+        private final BlockingQueue<OrderEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean resyncDue = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<OrderStatus> statuses) {
+            this.emitter = emitter;
+            this.statuses = statuses;
+        }
+
+        void offer(OrderEvent event) {
+            if (!buffer.offer(event)) {
+                //밀린 이벤트는 버리고 목록을 다시 조회하게 한다 (이 이벤트도 다시 조회한 목록에 반영되어 있다)
+                requestResync();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void requestResync() {
+            buffer.clear();
+            resyncDue.set(true);
+            resyncs.increment();
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) executor.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                do {
+                    if (resyncDue.getAndSet(false)) {
+                        emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(Map.of("lastEventId", eventId(lastEventId))));
+                    }
+                    if (heartbeatDue.getAndSet(false)) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    OrderEvent event;
+                    while (!resyncDue.get() && (event = buffer.poll()) != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(event.getId()))
+                                .name(eventName(event))
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                    draining.set(false);
+                } while (!closed && hasPending() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                //연결이 끊긴 화면
+                log.debug("주문 이벤트 구독 종료: {}", e.getMessage());
+                close();
+            }
+        }
+
+        private boolean hasPending() {
+            return resyncDue.get() || heartbeatDue.get() || !buffer.isEmpty();
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            buffer.clear();
+        }
+    }
+
+    private static String eventName(OrderEvent event) {
+        return switch (event.getType()) {
+            case CREATED -> "order-created";
+            case STATUS_CHANGED -> "order-status-changed";
+        };
+    }
+}
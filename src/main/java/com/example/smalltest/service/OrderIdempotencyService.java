@@ -0,0 +1,171 @@
+package com.example.smalltest.service;
+
+import com.example.smalltest.cache.OrderResponseCodec;
+import com.example.smalltest.domain.IdempotencyRecord;
+import com.example.smalltest.dto.OrderCreateRequest;
+import com.example.smalltest.dto.OrderItemRequest;
+import com.example.smalltest.dto.OrderResponse;
+import com.example.smalltest.exception.IdempotencyKeyConflictException;
+import com.example.smalltest.exception.InvalidIdempotencyKeyException;
+import com.example.smalltest.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key 로 주문 생성 (모바일 클라이언트 재시도)
+ * 키마다 첫 응답을 ttl 동안 저장해 두고, 같은 키로 다시 오면 메뉴 조회/첨부 파일 업로드/INSERT 없이 저장된 응답을 돌려준다.
+ * 같은 인스턴스에 동시에 들어온 중복 요청은 첫 요청이 끝날 때까지 기다렸다가 같은 응답을 받고,
+ * 다른 인스턴스와 겹치면 키(기본 키) 저장이 한쪽만 성공하므로 진 쪽은 주문을 롤백하고 이긴 쪽의 응답을 돌려준다.
+ */
+@Slf4j
+@Service
+public class OrderIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * replayed 가 true 면 저장된(또는 먼저 처리된) 응답
+     */
+    public record Result(OrderResponse response, boolean replayed) {
+    }
+
+    //이 인스턴스에서 처리 중인 키
+    private record InFlight(String requestHash, CompletableFuture<OrderResponse> response) {
+    }
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   IdempotencyRecordRepository idempotencyRecordRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.order.idempotency.ttl:24h}") Duration ttl,
+                                   @Value("${app.order.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+    }
+
+    public Result createOrder(String key, OrderCreateRequest orderCreateRequest, MultipartFile file) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key 는 1~" + MAX_KEY_LENGTH + "자여야 합니다.");
+        }
+        String requestHash = requestHash(orderCreateRequest, file);
+
+        //1. 같은 키가 처리 중이면 기다렸다가 같은 응답
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) return new Result(await(running, requestHash), true);
+
+        try {
+            Result result = createOnce(key, requestHash, orderCreateRequest, file);
+            mine.response().complete(result.response());
+            return result;
+        } catch (RuntimeException e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Result createOnce(String key, String requestHash, OrderCreateRequest orderCreateRequest, MultipartFile file) {
+
+        //2. 저장된 응답이 있으면 그대로
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord stored = idempotencyRecordRepository.findById(key).orElse(null);
+        if (stored != null && !stored.isExpired(now)) return replay(stored, requestHash);
+
+        //3. 주문 생성과 응답 저장을 한 트랜잭션으로 (첨부 파일 업로드는 커밋된 뒤에만 시작)
+        try {
+            OrderResponse created = transactionTemplate.execute(status -> {
+                if (stored != null) idempotencyRecordRepository.deleteExpired(key, now);
+                OrderResponse response = orderService.createOrder(orderCreateRequest, file);
+                idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .key(key)
+                        .requestHash(requestHash)
+                        .orderId(response.getId())
+                        .response(OrderResponseCodec.encode(response))
+                        .expiresAt(now.plus(ttl))
+                        .build());
+                return response;
+            });
+            return new Result(created, false);
+        } catch (DataIntegrityViolationException e) {
+            //4. 다른 인스턴스가 같은 키로 먼저 저장했으면 이 주문은 롤백되었으므로 그쪽 응답
+            IdempotencyRecord winner = idempotencyRecordRepository.findById(key).orElseThrow(() -> e);
+            return replay(winner, requestHash);
+        }
+    }
+
+    private Result replay(IdempotencyRecord stored, String requestHash) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("같은 Idempotency-Key 로 다른 주문 요청을 보낼 수 없습니다.");
+        }
+        return new Result(OrderResponseCodec.decode(stored.getResponse()), true);
+    }
+
+    private OrderResponse await(InFlight running, String requestHash) {
+        if (!running.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("같은 Idempotency-Key 로 다른 주문 요청을 보낼 수 없습니다.");
+        }
+        try {
+            return running.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            //첫 요청이 실패했으면 같은 이유로 실패 (실패한 요청은 저장하지 않으므로 다시 보내면 새로 처리)
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException("같은 Idempotency-Key 의 요청을 아직 처리 중입니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("같은 Idempotency-Key 의 요청을 아직 처리 중입니다.");
+        }
+    }
+
+    //고객 이름, 주문 항목, 첨부 파일 이름/크기
+    static String requestHash(OrderCreateRequest orderCreateRequest, MultipartFile file) {
+        StringBuilder source = new StringBuilder(orderCreateRequest.customerName()).append('\n');
+        for (OrderItemRequest orderItemRequest : orderCreateRequest.orderItems()) {
+            source.append(orderItemRequest.menuId()).append(':').append(orderItemRequest.quantity()).append(',');
+        }
+        if (file != null && !file.isEmpty()) {
+            source.append('\n').append(file.getOriginalFilename()).append(':').append(file.getSize());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.idempotency.cleanup-interval:10m}")
+    public void deleteExpired() {
+        int deleted = idempotencyRecordRepository.deleteAllExpired(LocalDateTime.now());
+        if (deleted > 0) log.debug("만료된 멱등성 키 {}건 삭제", deleted);
+    }
+}
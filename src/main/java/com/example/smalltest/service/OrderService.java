@@ -1,84 +1,559 @@
 package com.example.smalltest.service;
 
+import com.example.smalltest.cache.MenuCatalogCache;
+import com.example.smalltest.cache.OrderResponseCache;
+import com.example.smalltest.domain.AttachmentStatus;
 import com.example.smalltest.domain.Menu;
 import com.example.smalltest.domain.Order;
 import com.example.smalltest.domain.OrderItem;
 import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.AttachmentResponse;
+import com.example.smalltest.dto.BulkOrderResponse;
+import com.example.smalltest.dto.BulkOrderResult;
+import com.example.smalltest.dto.BulkStatusUpdateResponse;
+import com.example.smalltest.dto.BulkStatusUpdateResult;
 import com.example.smalltest.dto.OrderCreateRequest;
+import com.example.smalltest.dto.OrderCursor;
+import com.example.smalltest.dto.OrderEvent;
 import com.example.smalltest.dto.OrderItemRequest;
+import com.example.smalltest.dto.OrderPage;
 import com.example.smalltest.dto.OrderResponse;
-import com.example.smalltest.repository.MenuRepository;
+import com.example.smalltest.dto.OrderStatusView;
+import com.example.smalltest.dto.OrderSummaryResponse;
+import com.example.smalltest.exception.AttachmentNotFoundException;
+import com.example.smalltest.exception.InvalidOrderQueryException;
+import com.example.smalltest.exception.OrderStatusConflictException;
+import com.example.smalltest.metrics.OrderMetrics;
+import com.example.smalltest.metrics.OrderMetrics.Operation;
+import com.example.smalltest.metrics.OrderMetrics.Phase;
+import com.example.smalltest.metrics.OrderMetrics.RejectReason;
+import com.example.smalltest.outbox.OrderOutbox;
 import com.example.smalltest.repository.OrderRepository;
+import com.example.smalltest.sales.SalesAggregator;
+import com.example.smalltest.sales.SalesDelta;
+import com.example.smalltest.service.AttachmentUploadQueue.PendingAttachment;
+import com.example.smalltest.storage.ObjectDownload;
+import com.example.smalltest.storage.ObjectStorage;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    //주문 목록 한 페이지 최대 크기
+    private static final int MAX_PAGE_SIZE = 100;
+
+    //일괄 생성 요청 한 건 (요청 본문에서의 순서 포함)
+    private record IndexedRequest(int index, OrderCreateRequest request) {
+    }
+
+    //일괄 상태 변경에서 거절한 주문의 지표용
+    private record Rejection(OrderStatus from, RejectReason reason) {
+    }
+
+    //잠그지 않은 일괄 상태 변경에서 어느 주문을 이 요청이 바꿨는지 알 수 없을 때 (청크를 롤백하고 잠가서 다시 처리)
+    private static final class AmbiguousWinnersException extends RuntimeException {
+        AmbiguousWinnersException() {
+            super(null, null, false, false);
+        }
+    }
+
     private final OrderRepository orderRepository;
-    private final MenuRepository menuRepository;
-    private final S3PrivateFileService s3PrivateFileService;
+    private final MenuCatalogCache menuCatalogCache;
+    private final OrderResponseCache orderResponseCache;
+    private final AttachmentUploadQueue attachmentUploadQueue;
+    private final ObjectStorage objectStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final OrderOutbox orderOutbox;
+    private final OrderMetrics orderMetrics;
+    private final SalesAggregator salesAggregator;
+
+    //일괄 생성 시 한 트랜잭션으로 저장하는 주문 수
+    @Value("${app.order.bulk.chunk-size:100}")
+    private int bulkChunkSize = 100;
 
 
+    @Transactional
+    public OrderResponse createOrder(OrderCreateRequest orderCreateRequest) {
+        return createOrder(orderCreateRequest, null);
+    }
+
+    /**
+     * 주문 생성, 처리 시간은 단계별(메뉴 조회 / 첨부 파일 스풀 / INSERT)로도 기록한다
+     * (order.service 는 커밋 시간 제외, INSERT 단계는 커밋 포함)
+     */
+    @Transactional
     public OrderResponse createOrder(OrderCreateRequest orderCreateRequest, MultipartFile file) {
+        return orderMetrics.time(Operation.CREATE_ORDER, () -> create(orderCreateRequest, file));
+    }
+
+    private OrderResponse create(OrderCreateRequest orderCreateRequest, MultipartFile file) {
+
+        //1. 주문 생성 + 주문 항목 추가 (주문에 포함된 메뉴는 한 번의 쿼리로 조회)
+        long phaseStart = System.nanoTime();
+        Order order = buildOrder(orderCreateRequest, getMenus(List.of(orderCreateRequest)));
+        orderMetrics.recordPhase(Phase.MENU_LOOKUP, phaseStart);
+
+        //3. 첨부 파일은 업로드 대기열에 자리를 확보하고 스풀 파일로 복사만 해 둔다
+        //   S3 업로드는 주문이 커밋된 뒤 백그라운드에서 진행 (요청 스레드가 S3를 기다리지 않음)
+        //   presigned url 은 만료되므로 DB에는 객체 Key 만 저장하고, 필요할 때마다 presigned url 을 발급
+        PendingAttachment attachment = null;
+        if (file != null && !file.isEmpty()) {
+            phaseStart = System.nanoTime();
+            attachment = attachmentUploadQueue.prepare(file);
+            order.attach(attachment.key());
+            orderMetrics.recordPhase(Phase.ATTACHMENT_SPOOL, phaseStart);
+        }
+
+        //4. 주문 저장 (INSERT 는 커밋할 때 JDBC 배치로 나가므로 커밋이 끝난 뒤에 기록)
+        Order saved;
+        try {
+            phaseStart = System.nanoTime();
+            saved = orderRepository.save(order);
+            orderMetrics.recordPhaseAfterCommit(Phase.INSERT, phaseStart);
+        } catch (RuntimeException e) {
+            if (attachment != null) attachmentUploadQueue.discard(attachment);
+            throw e;
+        }
+        if (attachment != null) attachmentUploadQueue.submit(saved.getId(), attachment);
+        publishEvent(OrderEvent.created(saved.getId(), saved.getStatus()));
+
+        return OrderResponse.from(saved);
+    }
+
+    /**
+     * 여러 주문 일괄 생성 (키오스크 오프라인 주문 동기화)
+     * 요청을 bulkChunkSize 개씩 읽어서 청크마다 메뉴를 한 번에 조회하고 한 트랜잭션으로 저장한다(JDBC 배치).
+     * 잘못된 주문은 그 주문만 실패로 남기고 나머지는 계속 처리한다.
+     */
+    public BulkOrderResponse createOrders(Iterator<OrderCreateRequest> orderCreateRequests) {
+        return orderMetrics.time(Operation.CREATE_ORDERS, () -> createAll(orderCreateRequests));
+    }
+
+    private BulkOrderResponse createAll(Iterator<OrderCreateRequest> orderCreateRequests) {
+
+        List<BulkOrderResult> results = new ArrayList<>();
+        List<IndexedRequest> chunk = new ArrayList<>(bulkChunkSize);
+        int index = 0;
+        while (true) {
+            OrderCreateRequest request;
+            try {
+                if (!orderCreateRequests.hasNext()) break;
+                request = orderCreateRequests.next();
+            } catch (RuntimeException e) {
+                //본문을 더 읽을 수 없으면(JSON 문법 오류 등) 이미 읽은 주문까지만 처리
+                results.add(BulkOrderResult.failed(index, "요청을 읽을 수 없습니다. " + e.getMessage()));
+                break;
+            }
+            chunk.add(new IndexedRequest(index++, request));
+            if (chunk.size() >= bulkChunkSize) {
+                results.addAll(createChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) results.addAll(createChunk(chunk));
+
+        results.sort(Comparator.comparingInt(BulkOrderResult::getIndex));
+        return BulkOrderResponse.from(results);
+    }
+
+    private List<BulkOrderResult> createChunk(List<IndexedRequest> chunk) {
+
+        List<BulkOrderResult> results = new ArrayList<>(chunk.size());
+
+        //1. 검증 (@Valid 와 같은 규칙)
+        List<IndexedRequest> valid = new ArrayList<>(chunk.size());
+        for (IndexedRequest indexed : chunk) {
+            String error = validate(indexed.request());
+            if (error != null) results.add(BulkOrderResult.failed(indexed.index(), error));
+            else valid.add(indexed);
+        }
+
+        //2. 청크에 포함된 메뉴를 한 번에 조회해서 주문 생성 (없는 메뉴, 판매 중지 메뉴는 그 주문만 실패)
+        Map<Long, Menu> menus = getMenus(valid.stream().map(IndexedRequest::request).toList());
+        List<IndexedRequest> built = new ArrayList<>(valid.size());
+        List<Order> orders = new ArrayList<>(valid.size());
+        for (IndexedRequest indexed : valid) {
+            try {
+                orders.add(buildOrder(indexed.request(), menus));
+                built.add(indexed);
+            } catch (RuntimeException e) {
+                results.add(BulkOrderResult.failed(indexed.index(), e.getMessage()));
+            }
+        }
+        if (orders.isEmpty()) return results;
+
+        //3. 청크 전체를 한 트랜잭션으로 저장
+        try {
+            List<Order> saved = transactionTemplate.execute(status -> {
+                List<Order> savedOrders = orderRepository.saveAll(orders);
+                savedOrders.forEach(order -> publishEvent(OrderEvent.created(order.getId(), order.getStatus())));
+                orderRepository.flush();
+                return savedOrders;
+            });
+            for (int i = 0; i < built.size(); i++) {
+                results.add(BulkOrderResult.created(built.get(i).index(), saved.get(i).getId()));
+            }
+        } catch (RuntimeException e) {
+            //4. 청크 저장이 실패하면 한 건씩 다시 저장해서 실패한 주문만 골라낸다
+            log.warn("일괄 주문 청크 저장 실패, 한 건씩 다시 저장 size={}: {}", built.size(), e.getMessage());
+            for (IndexedRequest indexed : built) {
+                results.add(createOne(indexed, menus));
+            }
+        }
+        return results;
+    }
+
+    private BulkOrderResult createOne(IndexedRequest indexed, Map<Long, Menu> menus) {
+        try {
+            //실패한 트랜잭션의 엔티티는 재사용하지 않고 새로 만든다
+            Order order = buildOrder(indexed.request(), menus);
+            Order saved = transactionTemplate.execute(status -> {
+                Order savedOrder = orderRepository.save(order);
+                publishEvent(OrderEvent.created(savedOrder.getId(), savedOrder.getStatus()));
+                orderRepository.flush();
+                return savedOrder;
+            });
+            return BulkOrderResult.created(indexed.index(), saved.getId());
+        } catch (RuntimeException e) {
+            return BulkOrderResult.failed(indexed.index(), e.getMessage());
+        }
+    }
+
+    private String validate(OrderCreateRequest orderCreateRequest) {
+        if (orderCreateRequest == null) return "빈 주문입니다.";
+        Set<ConstraintViolation<OrderCreateRequest>> violations = validator.validate(orderCreateRequest);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Order buildOrder(OrderCreateRequest orderCreateRequest, Map<Long, Menu> menus) {
 
-        //1. 주문 생성
         Order order = Order.builder()
                 .customerName(orderCreateRequest.customerName())
                 .build();
-
-        //2. 주문 항목 추가
         for (OrderItemRequest orderItemRequest : orderCreateRequest.orderItems()) {
-            Menu menu = getMenu(orderItemRequest.menuId());
+            Menu menu = getMenu(menus, orderItemRequest.menuId());
             order.addOrderItem(menu, orderItemRequest.quantity());
         }
-        //3. 주문 저장
-
-        //AWS S3와 연동해서 프로필 파일을 전송하는 로직
-        try {
-            //이 url을 db에 회원정보와 함께 저장 하세용
-            // 나중에 프론트에서 회원 정보를 요청할 때 url 도 같이 전달
+        return order;
+    }
 
-            //만약 presigned url을 사용한다면 굳이 DB에 url을 저장할 필요가 없습니다.
-            // 파일명(객체 Key)을 DB에 저장하세요. 그리고 데이터를 불러올 일이 있다면 그때마다
-            //presigned url을 얻어내서 프론트 쪽에 전달하세요.
-            String url = s3PrivateFileService.uploadToS3Bucket(file);
-        } catch (IOException e) {
+    /**
+     * 주문들에 포함된 메뉴를 메뉴 캐시에서 조회 (캐시에 없는 메뉴만 IN 쿼리 한 번으로 조회, 중복 메뉴 id는 한 번만 조회)
+     */
+    private Map<Long, Menu> getMenus(List<OrderCreateRequest> orderCreateRequests) {
 
-            throw new RuntimeException(e);
+        Set<Long> menuIds = new LinkedHashSet<>();
+        for (OrderCreateRequest orderCreateRequest : orderCreateRequests) {
+            for (OrderItemRequest orderItemRequest : orderCreateRequest.orderItems()) {
+                menuIds.add(orderItemRequest.menuId());
+            }
         }
-
-        Order saved = orderRepository.save(order);
-        return OrderResponse.from(saved);
+        return menuCatalogCache.getAll(menuIds);
     }
 
-    private Menu getMenu(Long menuId) {
+    private Menu getMenu(Map<Long, Menu> menus, Long menuId) {
 
-        Menu menu = menuRepository.findById(menuId)
-                .orElseThrow(() -> new RuntimeException("존재하지 않는 메뉴 "+ menuId));
+        Menu menu = menus.get(menuId);
+        if (menu == null) throw new RuntimeException("존재하지 않는 메뉴 "+ menuId);
         if(!menu.getAvailable()) throw new IllegalStateException("주문할 수 없는 메뉴입니다." + menu.getName());
         return menu;
     }
 
     public OrderResponse getOrder(long l) {
+        return orderMetrics.time(Operation.GET_ORDER, () -> findOrder(l));
+    }
+
+    private OrderResponse findOrder(long l) {
+
+        //공유 캐시(Redis)에 있으면 DB 조회 생략
+        OrderResponse cached = orderResponseCache.get(l);
+        if (cached != null) return cached;
 
         Order byIdWithItems = orderRepository.findByIdWithItems(l);
         if (byIdWithItems == null) throw new IllegalArgumentException("주문을 찾을 수 없습니다." + l);
-        return OrderResponse.from(byIdWithItems);
+        OrderResponse response = OrderResponse.from(byIdWithItems);
+        orderResponseCache.put(response);
+        return response;
+    }
+
+    /**
+     * 주문 목록 요약 조회 (최신순, 커서 기반), 고객 이름 또는 주문 상태 중 하나로 검색
+     * 주문 항목은 읽지 않고 필요한 컬럼만 조회한다.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage<OrderSummaryResponse> getOrderSummaries(String customerName, OrderStatus status,
+                                                             String cursor, int size) {
+        return orderMetrics.time(Operation.GET_ORDER_SUMMARIES, () -> findSummaries(customerName, status, cursor, size));
+    }
+
+    private OrderPage<OrderSummaryResponse> findSummaries(String customerName, OrderStatus status, String cursor, int size) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        OrderCursor after = OrderCursor.decode(cursor);
+        //다음 페이지가 있는지 알기 위해 한 건 더 조회
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<OrderSummaryResponse> rows;
+        if (customerName != null && !customerName.isBlank()) {
+            rows = orderRepository.findSummariesByCustomerName(customerName, after.orderedAt(), after.id(), limit);
+        } else if (status != null) {
+            rows = orderRepository.findSummariesByStatus(status, after.orderedAt(), after.id(), limit);
+        } else {
+            throw new InvalidOrderQueryException("고객 이름 또는 주문 상태를 지정해야 합니다.");
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<OrderSummaryResponse> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? OrderCursor.of(content.get(content.size() - 1)).encode() : null;
+        return new OrderPage<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * 주문 목록 조회 (주문 항목 포함)
+     * 요약 페이지를 먼저 읽고, 그 페이지의 주문 항목은 IN 쿼리 한 번으로 가져온다 (주문마다 조회하지 않음)
+     */
+    @Transactional(readOnly = true)
+    public OrderPage<OrderResponse> getOrders(String customerName, OrderStatus status, String cursor, int size) {
+        return orderMetrics.time(Operation.GET_ORDERS, () -> findOrders(customerName, status, cursor, size));
+    }
+
+    private OrderPage<OrderResponse> findOrders(String customerName, OrderStatus status, String cursor, int size) {
+
+        OrderPage<OrderSummaryResponse> summaries = findSummaries(customerName, status, cursor, size);
+        List<Long> ids = summaries.getContent().stream().map(OrderSummaryResponse::getId).toList();
+        if (ids.isEmpty()) return new OrderPage<>(List.of(), null, false);
+
+        Map<Long, Order> orders = orderRepository.findAllWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<OrderResponse> content = ids.stream()
+                .map(orders::get)
+                .filter(Objects::nonNull)
+                .map(OrderResponse::from)
+                .toList();
+        return new OrderPage<>(content, summaries.getNextCursor(), summaries.isHasNext());
+    }
+
+    /**
+     * 주문 첨부 파일 업로드 상태 조회
+     */
+    public AttachmentResponse getAttachment(long orderId) {
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("주문을 찾을 수 없습니다." + orderId));
+        return AttachmentResponse.from(order);
+    }
+
+    /**
+     * 업로드가 끝난 첨부 파일을 스트림으로 연다 (Range, If-None-Match 지원)
+     */
+    public ObjectDownload openAttachment(long orderId, String range, String ifNoneMatch) {
+
+        AttachmentResponse attachment = getAttachment(orderId);
+        if (attachment.getStatus() != AttachmentStatus.UPLOADED) {
+            throw new AttachmentNotFoundException("다운로드할 수 있는 첨부 파일이 없습니다." + orderId);
+        }
+        return objectStorage.get(attachment.getAttachmentKey(), range, ifNoneMatch);
+    }
+
+    @Transactional
+    public OrderResponse updateOrderStatus(long orderId, OrderStatus newStatus) {
+        return updateOrderStatus(orderId, null, newStatus);
+    }
+
+    /**
+     * 주문 상태 변경 (낙관적 동시성 제어)
+     * 읽은 상태 그대로일 때만 바꾸는 조건부 UPDATE 한 문장으로 변경하고, 그 사이에 다른 요청이 먼저 바꿨으면 409
+     * @param expectedStatus 클라이언트가 알고 있는 현재 상태 (null 이면 방금 읽은 상태)
+     */
+    @Transactional
+    public OrderResponse updateOrderStatus(long orderId, OrderStatus expectedStatus, OrderStatus newStatus) {
+        return orderMetrics.time(Operation.UPDATE_STATUS, () -> changeStatus(orderId, expectedStatus, newStatus));
+    }
+
+    private OrderResponse changeStatus(long orderId, OrderStatus expectedStatus, OrderStatus newStatus) {
+
+        //1. 현재 상태 조회 (잠금 없음)
+        Order order = orderRepository.findByIdWithItems(orderId);
+        if (order == null) throw new IllegalArgumentException("주문을 찾을 수 없습니다." + orderId);
+        OrderStatus currentStatus = order.getStatus();
+        if (expectedStatus != null && expectedStatus != currentStatus) {
+            orderMetrics.rejected(currentStatus, newStatus, RejectReason.CONFLICT);
+            throw new OrderStatusConflictException(orderId, expectedStatus, newStatus);
+        }
+
+        //2. 전환 규칙 검증
+        if (!currentStatus.canTransitionTo(newStatus)) {
+            orderMetrics.rejected(currentStatus, newStatus, RejectReason.INVALID_TRANSITION);
+            throw currentStatus.invalidTransitionTo(newStatus);
+        }
+
+        //3. 상태가 그대로일 때만 변경
+        if (orderRepository.compareAndSetStatus(orderId, currentStatus, newStatus) == 0) {
+            orderMetrics.rejected(currentStatus, newStatus, RejectReason.CONFLICT);
+            throw new OrderStatusConflictException(orderId, currentStatus, newStatus);
+        }
+        orderMetrics.transitioned(currentStatus, newStatus);
+        //완료/취소되면 매출 집계도 같은 트랜잭션에서 증감
+        salesAggregator.recordTransition(order, currentStatus, newStatus);
+        orderResponseCache.evictAfterCommit(orderId);
+        publishEvent(OrderEvent.statusChanged(orderId, currentStatus, newStatus));
+
+        //조건부 UPDATE 후 영속성 컨텍스트가 비워져서 order 는 준영속 상태, 응답용으로만 상태를 맞춘다
+        order.updateStatus(newStatus);
+        return OrderResponse.from(order);
+    }
+
+    /**
+     * 여러 주문 상태 일괄 변경 (주방 화면에서 여러 주문을 한 번에 완료 처리)
+     * bulkChunkSize 개씩 한 트랜잭션으로 처리한다. 청크의 현재 상태를 한 번에 읽어서 전환 규칙을 검사하고,
+     * 전환 가능한 주문은 현재 상태별로 묶어서 조건부 UPDATE 한 문장씩으로 변경한다.
+     * 없는 주문, 전환할 수 없는 주문, 그 사이에 다른 요청이 먼저 바꾼 주문은 그 주문만 거절한다.
+     */
+    public BulkStatusUpdateResponse updateOrderStatuses(Collection<Long> orderIds, OrderStatus newStatus) {
+        return orderMetrics.time(Operation.UPDATE_STATUSES, () -> changeStatuses(orderIds, newStatus));
     }
 
-    public OrderResponse updateOrderStatus(long l, OrderStatus orderStatus) {
+    private BulkStatusUpdateResponse changeStatuses(Collection<Long> orderIds, OrderStatus newStatus) {
 
-        Order order = orderRepository.findById(l).orElseThrow(IllegalArgumentException::new);
-        order.updateStatus(orderStatus);
-        Order updatedOrder = orderRepository.save(order);
+        //같은 주문이 여러 번 들어오면 한 번만 처리
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        List<BulkStatusUpdateResult> results = new ArrayList<>(ids.size());
+        //매출 집계가 걸린 전환(완료, 취소)은 처음부터 행을 잠그고 읽는다
+        boolean lock = SalesDelta.affectsTransitionsTo(newStatus);
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+            List<BulkStatusUpdateResult> chunkResults;
+            try {
+                chunkResults = transactionTemplate.execute(status -> updateStatusChunk(chunk, newStatus, lock));
+            } catch (AmbiguousWinnersException e) {
+                //청크를 롤백했으므로 이번에는 잠그고 다시 처리
+                chunkResults = transactionTemplate.execute(status -> updateStatusChunk(chunk, newStatus, true));
+            }
+            results.addAll(chunkResults);
+        }
+
+        //커밋된 뒤에 캐시 제거
+        for (BulkStatusUpdateResult result : results) {
+            if (result.isSuccess()) orderResponseCache.evict(result.getOrderId());
+        }
+        return BulkStatusUpdateResponse.from(newStatus, results);
+    }
+
+    private List<BulkStatusUpdateResult> updateStatusChunk(List<Long> chunk, OrderStatus newStatus, boolean lock) {
+
+        //1. 청크의 현재 상태를 한 번에 조회 (lock 이면 id 순서로 행을 잠근다)
+        Map<Long, OrderStatus> currentStatuses = lock
+                ? orderRepository.findAllByIdInForUpdate(chunk).stream()
+                .collect(Collectors.toMap(Order::getId, Order::getStatus))
+                : orderRepository.findStatusesByIdIn(chunk).stream()
+                .collect(Collectors.toMap(OrderStatusView::id, OrderStatusView::status));
+
+        //2. 전환 규칙 검사, 전환 가능한 주문은 현재 상태별로 묶는다
+        Map<Long, BulkStatusUpdateResult> results = new HashMap<>();
+        List<Rejection> rejections = new ArrayList<>();
+        Map<OrderStatus, List<Long>> groups = new EnumMap<>(OrderStatus.class);
+        for (Long orderId : chunk) {
+            OrderStatus currentStatus = currentStatuses.get(orderId);
+            if (currentStatus == null) {
+                results.put(orderId, BulkStatusUpdateResult.rejected(orderId, null, "주문을 찾을 수 없습니다."));
+            } else if (!currentStatus.canTransitionTo(newStatus)) {
+                rejections.add(new Rejection(currentStatus, RejectReason.INVALID_TRANSITION));
+                results.put(orderId, BulkStatusUpdateResult.rejected(orderId, currentStatus,
+                        String.format("주문 상태를 %s에서 %s로 변경할 수 없습니다", currentStatus, newStatus)));
+            } else {
+                groups.computeIfAbsent(currentStatus, status -> new ArrayList<>()).add(orderId);
+            }
+        }
+
+        //3. 현재 상태별로 조건부 UPDATE 한 문장씩
+        Map<Long, OrderStatus> transitions = new HashMap<>();
+        for (Map.Entry<OrderStatus, List<Long>> group : groups.entrySet()) {
+            OrderStatus expectedStatus = group.getKey();
+            List<Long> groupIds = group.getValue();
+            int updated = orderRepository.compareAndSetStatuses(groupIds, expectedStatus, newStatus);
+
+            //일부만 바뀌었으면 그 사이에 상태가 바뀐 주문이 있으므로 다시 읽어서 골라낸다
+            //newStatus 인 주문이 바뀐 행 수와 같으면 모두 이 요청이 바꾼 것이고, 더 많으면 다른 요청이 같은 상태로 바꾼 주문이 섞여 있어서
+            //어느 것이 이 요청의 것인지 알 수 없으므로 청크를 롤백하고 잠가서 다시 처리한다
+            Map<Long, OrderStatus> afterStatuses = updated == groupIds.size() ? Map.of()
+                    : orderRepository.findStatusesByIdIn(groupIds).stream()
+                    .collect(Collectors.toMap(OrderStatusView::id, OrderStatusView::status));
+            if (updated != groupIds.size()
+                    && afterStatuses.values().stream().filter(status -> status == newStatus).count() != updated) {
+                throw new AmbiguousWinnersException();
+            }
+            for (Long orderId : groupIds) {
+                OrderStatus afterStatus = updated == groupIds.size() ? newStatus : afterStatuses.get(orderId);
+                if (afterStatus == newStatus) {
+                    transitions.put(orderId, expectedStatus);
+                    results.put(orderId, BulkStatusUpdateResult.updated(orderId, expectedStatus));
+                } else {
+                    rejections.add(new Rejection(expectedStatus, RejectReason.CONFLICT));
+                    results.put(orderId, BulkStatusUpdateResult.rejected(orderId, afterStatus, "다른 요청이 먼저 주문 상태를 변경했습니다."));
+                }
+            }
+        }
+
+        //4. 이 요청이 실제로 바꾼 주문만 이벤트와 지표를 남긴다 (롤백하고 다시 처리할 때 두 번 남지 않도록 UPDATE 를 모두 끝낸 뒤에)
+        for (Rejection rejection : rejections) {
+            orderMetrics.rejected(rejection.from(), newStatus, rejection.reason());
+        }
+        Map<Long, OrderStatus> salesTransitions = new HashMap<>();
+        for (Long orderId : chunk) {
+            OrderStatus previousStatus = transitions.get(orderId);
+            if (previousStatus == null) continue;
+            publishEvent(OrderEvent.statusChanged(orderId, previousStatus, newStatus));
+            orderMetrics.transitioned(previousStatus, newStatus);
+            if (SalesDelta.affects(previousStatus, newStatus)) salesTransitions.put(orderId, previousStatus);
+        }
+
+        //5. 완료/취소된 주문은 주문 항목을 IN 쿼리 한 번으로 읽어서 매출 집계를 청크 단위로 증감
+        if (!salesTransitions.isEmpty()) {
+            SalesDelta sales = new SalesDelta();
+            for (Order order : orderRepository.findAllWithItemsByIdIn(salesTransitions.keySet())) {
+                sales.addTransition(order, salesTransitions.get(order.getId()), newStatus);
+            }
+            salesAggregator.apply(sales);
+        }
+        return chunk.stream().map(results::get).toList();
+    }
 
-        return OrderResponse.from(updatedOrder);
+    //아웃박스는 호출한 트랜잭션에 함께 저장하고, 실시간 스트림은 커밋된 뒤에 보낸다
+    private void publishEvent(OrderEvent event) {
+        orderOutbox.append(event);
+        orderEventBroadcaster.publish(event);
     }
 }
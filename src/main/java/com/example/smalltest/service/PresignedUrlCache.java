@@ -0,0 +1,120 @@
+package com.example.smalltest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pre-signed URL 캐시
+ * 같은 (객체 키, 유효 시간) 에 대해 남은 유효 시간이 min-remaining 이상이면 이미 만든 URL 을 재사용해서
+ * 매번 SigV4 서명을 다시 계산하지 않는다. 남은 시간이 min-remaining 보다 짧아지는 시점에 캐시에서 제거된다.
+ */
+@Slf4j
+public class PresignedUrlCache {
+
+    public static final String CACHE_NAME = "presignedUrl";
+
+    private record CacheKey(String objectKey, Duration duration) {
+    }
+
+    private final S3Presigner s3Presigner;
+    private final String bucketName;
+    private final Duration minRemaining;
+    private final Cache<CacheKey, PresignedGetObjectRequest> cache;
+
+    public PresignedUrlCache(S3Presigner s3Presigner, String bucketName, long maximumSize,
+                             Duration minRemaining, MeterRegistry meterRegistry) {
+        this.s3Presigner = s3Presigner;
+        this.bucketName = bucketName;
+        this.minRemaining = minRemaining;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<CacheKey, PresignedGetObjectRequest>() {
+                    @Override
+                    public long expireAfterCreate(CacheKey key, PresignedGetObjectRequest value, long currentTime) {
+                        return reusableNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(CacheKey key, PresignedGetObjectRequest value,
+                                                  long currentTime, long currentDuration) {
+                        return reusableNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(CacheKey key, PresignedGetObjectRequest value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public String get(String objectKey, Duration duration) {
+        return cache.get(new CacheKey(objectKey, duration), this::presign).url().toString();
+    }
+
+    /**
+     * 여러 객체의 URL 을 한 번에 발급 (목록 화면용), 결과는 요청한 키 순서
+     */
+    public Map<String, String> getAll(Collection<String> objectKeys, Duration duration) {
+        Set<CacheKey> keys = new LinkedHashSet<>();
+        for (String objectKey : objectKeys) {
+            keys.add(new CacheKey(objectKey, duration));
+        }
+        Map<CacheKey, PresignedGetObjectRequest> presigned = cache.getAll(keys, missing -> {
+            Map<CacheKey, PresignedGetObjectRequest> created = new HashMap<>();
+            for (CacheKey key : missing) {
+                created.put(key, presign(key));
+            }
+            return created;
+        });
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (CacheKey key : keys) {
+            urls.put(key.objectKey(), presigned.get(key).url().toString());
+        }
+        return urls;
+    }
+
+    private PresignedGetObjectRequest presign(CacheKey key) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key.objectKey())
+                .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(key.duration())
+                .getObjectRequest(request)
+                .build();
+
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(presignRequest);
+        //URL 전체(서명 포함)는 로그에 남기지 않는다
+        log.debug("Pre-signed URL 발급 key={} expiration={}", key.objectKey(), presigned.expiration());
+        return presigned;
+    }
+
+    //남은 유효 시간이 minRemaining 이 되는 시점까지만 재사용
+    private long reusableNanos(PresignedGetObjectRequest presigned) {
+        Duration reusable = Duration.between(Instant.now(), presigned.expiration()).minus(minRemaining);
+        return Math.max(reusable.toNanos(), 0);
+    }
+}
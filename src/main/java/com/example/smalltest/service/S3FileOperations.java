@@ -0,0 +1,96 @@
+package com.example.smalltest.service;
+
+import com.example.smalltest.storage.BulkDeleteResult;
+import com.example.smalltest.storage.ExistenceResult;
+import com.example.smalltest.storage.ObjectDownload;
+import com.example.smalltest.storage.ObjectStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * S3FileService, S3PrivateFileService 가 함께 쓰는 파일 업로드 / 삭제 / 다운로드 / 존재 확인
+ * 두 서비스는 업로드 후 돌려주는 URL(공개 URL / Pre-signed URL) 만 다르다.
+ */
+@Component
+@RequiredArgsConstructor
+class S3FileOperations {
+
+    //s3 버킷을 제어하는 객체 (app.storage.engine 에 따라 blocking / async / memory)
+    private final ObjectStorage objectStorage;
+
+    /**
+     * 고유한 객체 키(prefix + UUID + 원본 파일명) 로 업로드하고 키를 반환
+     * getBytes()로 파일 전체를 힙에 올리지 않고 입력 스트림에서 바로 전송 (큰 파일은 멀티파트 업로드)
+     */
+    String upload(MultipartFile file, String prefix) throws IOException {
+        String key = prefix + UUID.randomUUID() + "_" + file.getOriginalFilename();
+        try (InputStream in = file.getInputStream()) {
+            objectStorage.put(key, in, file.getSize(), file.getContentType());
+        }
+        return key;
+    }
+
+    String url(String key) {
+        return objectStorage.url(key);
+    }
+
+    void deleteByUrl(String fileUrl) {
+        objectStorage.delete(keyOf(fileUrl));
+    }
+
+    //1000개씩 나눠 병렬로 삭제, 지우지 못한 키는 결과의 failed 에 담김
+    BulkDeleteResult deleteByUrls(List<String> fileUrls) {
+        List<String> keys = new ArrayList<>(fileUrls.size());
+        for (String fileUrl : fileUrls) {
+            keys.add(keyOf(fileUrl));
+        }
+        return objectStorage.delete(keys);
+    }
+
+    //byte[] 로 모으지 않고 저장소 응답 스트림을 그대로 넘긴다 (호출한 쪽에서 body 를 닫아야 함)
+    ObjectDownload download(String key, String range, String ifNoneMatch) {
+        return objectStorage.get(key, range, ifNoneMatch);
+    }
+
+    boolean existsByUrl(String fileUrl) {
+        return objectStorage.exists(keyOf(fileUrl));
+    }
+
+    //결과는 요청한 URL 기준
+    ExistenceResult existsByUrls(Collection<String> fileUrls) {
+        Map<String, String> urlByKey = new LinkedHashMap<>();
+        for (String fileUrl : fileUrls) {
+            urlByKey.put(keyOf(fileUrl), fileUrl);
+        }
+        return objectStorage.exists(urlByKey.keySet()).mapKeys(urlByKey::get);
+    }
+
+    /**
+     * 업로드 때 받은 URL 에서 객체 키 추출
+     * https://s3-bucket-practice8917.s3.ap-northeast-2.amazonaws.com/74b59c79-d5da-4d05-b99a-557f00b4da07_fileName.gif
+     * -> 74b59c79-d5da-4d05-b99a-557f00b4da07_fileName.gif
+     */
+    String keyOf(String fileUrl) {
+        try {
+            // getPath() -> 프로토콜,ip(도메인),포트 번호를 제외한 리소스 내부 경로만 받음, 맨 앞의 "/" 는 뗀다
+            String path = URLDecoder.decode(new URL(fileUrl).getPath(), StandardCharsets.UTF_8);
+            return path.substring(1);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("잘못된 파일 URL " + fileUrl, e);
+        }
+    }
+}
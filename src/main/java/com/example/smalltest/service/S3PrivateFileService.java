@@ -1,213 +1,114 @@
 package com.example.smalltest.service;
 
+import com.example.smalltest.storage.BulkDeleteResult;
+import com.example.smalltest.storage.ExistenceResult;
+import com.example.smalltest.storage.ObjectDownload;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.ResponseBytes;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
 import java.io.IOException;
-import java.net.URL;
-import java.net.URLDecoder;
 import java.time.Duration;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class S3PrivateFileService {
 
-    //s3 버킷을 제어하는 객체
-    private S3Client s3Client;
+    //업로드 / 삭제 / 다운로드 / 존재 확인은 S3FileService 와 같은 구현을 쓴다
+    private final S3FileOperations s3FileOperations;
 
     //Pre-signed URL 생성용 객체
     //S3 접근을 위한 임시 url, 일정 시간 지나면 만료, public 접근이 불가능해짐
-    private S3Presigner s3Presigner;
+    private final S3Presigner s3Presigner;
 
-    @Value("${spring.cloud.aws.credentials.access-key}")
-    private String accessKey;
+    private final MeterRegistry meterRegistry;
 
-    @Value("${spring.cloud.aws.credentials.secret-key}")
-    private String secretKey;
+    //유효 시간이 충분히 남은 Pre-signed URL 재사용
+    private PresignedUrlCache presignedUrlCache;
 
-    @Value("${spring.cloud.aws.region.static}")
-    private String region;
+    //Pre-signed URL 유효 시간
+    @Value("${app.s3.presign.duration:10m}")
+    private Duration presignDuration;
+
+    //남은 유효 시간이 이보다 짧으면 새로 발급
+    @Value("${app.s3.presign.min-remaining:3m}")
+    private Duration presignMinRemaining;
+
+    @Value("${app.s3.presign.cache-size:10000}")
+    private long presignCacheSize;
 
     @Value("${spring.cloud.aws.s3.bucket}")
     private String bucketName;
 
-    //s3에 연결해서 인증을 처리하는 로직 작성
     @PostConstruct // 클래스를 기반으로 객체가 생성될 때 1번만 자동 실행되는 어노테이션
-    private void initializeAmazonS3Client(){
-        //엑세스 키와 시크릿 키를 이용해서 계정 인증 받기
-        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
-
-        this.s3Client = S3Client.builder()
-                .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                .build();
-
-        //S3 Presigner 초기화
-        this.s3Presigner = S3Presigner.builder()
-                .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                .build();
+    private void initializePresignedUrlCache(){
+        this.presignedUrlCache = new PresignedUrlCache(s3Presigner, bucketName, presignCacheSize,
+                presignMinRemaining, meterRegistry);
     }
 
 
+    //Pre-signed URL 반환(app.s3.presign.duration 동안 유효)
     public String uploadToS3Bucket(MultipartFile file) throws IOException {
-        //1. 고유한 파일명 생성(UUID + 원본 파일명)
-        String originalFilename = file.getOriginalFilename();
-        String uniqueFileName = UUID.randomUUID() + "_" + originalFilename;
-
-        //2. 업로드할 요청 객체 생성
-        PutObjectRequest request = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(uniqueFileName)
-                .contentType(file.getContentType())
-                .build();
-
-        //3.실제 s3에 파일 업로드
-
-        s3Client.putObject(
-                request,
-                RequestBody.fromBytes(file.getBytes())
-        );
-        //4. Pre-signed URL 생성 및 반환(1분동안 유효)
-        return generatePresignedUrl(uniqueFileName,1);
+        return generatePresignedUrl(s3FileOperations.upload(file, ""));
     }
 
-    //pre-signed url 생성
-    private String generatePresignedUrl(String uniqueFileName, int durationMinutes) {
-
-        GetObjectRequest request = GetObjectRequest.builder()
-                .bucket(bucketName)
-                .key(uniqueFileName)
-                .build();
-
-        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(durationMinutes))
-                .getObjectRequest(request)
-                .build();
+    //pre-signed url 생성 (유효 시간이 충분히 남은 URL 이 있으면 재사용)
+    public String generatePresignedUrl(String uniqueFileName) {
+        return generatePresignedUrl(uniqueFileName, presignDuration);
+    }
 
-        PresignedGetObjectRequest presignedGetObjectRequest = s3Presigner.presignGetObject(presignRequest);
+    public String generatePresignedUrl(String uniqueFileName, Duration duration) {
+        return presignedUrlCache.get(uniqueFileName, duration);
+    }
 
-        log.info("Pre-signed URL: {}", presignedGetObjectRequest.url().toString());
-        return presignedGetObjectRequest.url().toString();
+    //여러 파일의 pre-signed url 을 한 번에 생성 (목록 화면용), key -> url
+    public Map<String, String> generatePresignedUrls(Collection<String> uniqueFileNames) {
+        return presignedUrlCache.getAll(uniqueFileNames, presignDuration);
     }
 
-    //실제로는 폴더가 아니고 prefix로 파일을 구분
+    //실제로는 폴더가 아니고 prefix로 파일을 구분, 업로드된 파일의 URL 반환
     public String uploadFileToFolder(MultipartFile file,String folder) throws IOException {
-        //1. 고유한 파일명 생성(UUID + 원본 파일명)
-        String originalFilename = file.getOriginalFilename();
-        String uniqueFileName = folder +UUID.randomUUID() + "_" + originalFilename;
-
-        //2. 업로드할 요청 객체 생성
-        PutObjectRequest request = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(uniqueFileName)
-                .contentType(file.getContentType())
-                .build();
-
-        //3.실제 s3에 파일 업로드
-
-        s3Client.putObject(
-                request,
-                RequestBody.fromBytes(file.getBytes())
-        );
-        //4. 업로드된 파일의 URL 반환
-        return s3Client.utilities()
-                .getUrl(x-> x.bucket(bucketName).key(uniqueFileName))
-                .toString();
+        return s3FileOperations.url(s3FileOperations.upload(file, folder));
     }
 
-            // 우리가 가진 데이터: https://s3-bucket-practice8917.s3.ap-northeast-2.amazonaws.com/74b59c79-d5da-4d05-b99a-557f00b4da07_fileName.gif
-            // 가공 결과: 74b59c79-d5da-4d05-b99a-557f00b4da07_fileName.gif
-    //버킷의 객체를 지우기 위해서는 키값을 줘야 함 (파일 이름)
-
-    //파일 색제 로직
+    //파일 삭제 (버킷의 객체를 지우기 위해서는 키값을 줘야 함, URL 에서 추출)
     public void deleteFile(String imageUrl) throws Exception {
-        // getPath() -> 프로토콜,ip(도메인),포트 번호를 제외한 리소스 내부 경러만 받음
-        //맨 앞에 있는 "/" 를 떼기 위해서 substring을 진행
-        String key = extractFileNameFromUrl(imageUrl);
-        DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-                .bucket(bucketName)
-                .key(key)
-                .build();
-        s3Client.deleteObject(deleteRequest);
+        s3FileOperations.deleteByUrl(imageUrl);
     }
 
-    //여러 파일 일괄 삭제
-    public void deleteFiles(List<String> imageUrls) throws Exception {
-
-        List<String> fileNames = new ArrayList<>();
-        for (String imageUrl : imageUrls) {
-            fileNames.add(extractFileNameFromUrl(imageUrl));
-        }
-        List<ObjectIdentifier> objectIdentifiers = fileNames.stream().map(x ->
-                ObjectIdentifier.builder()
-                        .key(x)
-                        .build()
-        ).toList();
-
-        Delete deleteBuild = Delete.builder()
-                .objects(objectIdentifiers)
-                .build();
-        DeleteObjectsRequest deleteRequest = DeleteObjectsRequest.builder()
-                .bucket(bucketName)
-                .delete(deleteBuild)
-                .build();
-        s3Client.deleteObjects(deleteRequest);
+    //여러 파일 일괄 삭제 (1000개씩 나눠 병렬로 삭제, 지우지 못한 키는 결과의 failed 에 담김)
+    public BulkDeleteResult deleteFiles(List<String> imageUrls) throws Exception {
+        return s3FileOperations.deleteByUrls(imageUrls);
     }
+
     //파일 다운로드 요청
-    public byte[] downloadFile(String fileUrl) throws Exception {
-        String fileName = extractFileNameFromUrl(fileUrl);
-        GetObjectRequest request = GetObjectRequest.builder()
-                .bucket(bucketName)
-                .key(fileName)
-                .build();
-
-        ResponseBytes<GetObjectResponse> objectAsBytes = s3Client.getObjectAsBytes(request);
-        return objectAsBytes.asByteArray();
+    //객체 전체를 byte[] 로 복사하지 않고 저장소 응답 스트림을 그대로 넘긴다 (Range, If-None-Match 도 그대로 전달)
+    public ObjectDownload downloadFile(String key, String range, String ifNoneMatch) {
+        return s3FileOperations.download(key, range, ifNoneMatch);
     }
+
     //파일 존재 여부 확인
     public boolean isFileExist(String fileUrl) {
-        try {
-            String fileName = extractFileNameFromUrl(fileUrl);
-            HeadObjectRequest request = HeadObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .build();
-
-            s3Client.headObject(request);
-            return true;
-        } catch (S3Exception e) {
-           if(e.statusCode()==404) return false;
-           else throw new RuntimeException(e);
-        }
-        catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return s3FileOperations.existsByUrl(fileUrl);
+    }
+
+    //여러 파일 존재 여부 일괄 확인 (정합성 점검 배치용), 결과는 요청한 URL 기준
+    //HEAD 를 URL 마다 순서대로 보내지 않고 prefix 목록 조회 / 병렬 HEAD + 짧은 캐시로 확인한다
+    public ExistenceResult checkFilesExist(Collection<String> fileUrls) throws Exception {
+        return s3FileOperations.existsByUrls(fileUrls);
     }
 
     public String extractFileNameFromUrl(String imageUrl) throws Exception {
-        URL url = new URL(imageUrl);
-        String decode = URLDecoder.decode(url.getPath(),"UTF-8");
-        return decode.substring(1);
+        return s3FileOperations.keyOf(imageUrl);
     }
 
 
@@ -0,0 +1,148 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.UploadFileRequest;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * CRT 기반 S3AsyncClient + Transfer Manager 저장소 엔진 (논블로킹)
+ * 파일 업로드(putAsync)는 스레드를 점유하지 않고 future 로 완료를 알린다.
+ * 큰 객체는 Transfer Manager 가 파트를 나눠 병렬로 전송한다.
+ */
+public class AsyncS3ObjectStorage implements ObjectStorage, AutoCloseable {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final S3TransferManager transferManager;
+    private final String bucketName;
+
+    //InputStream 업로드 시 스트림을 읽는 스레드 (S3 전송 자체는 CRT 이벤트 루프에서 처리, 업로드마다 하나씩 쓰므로
+    //가상 스레드 모드에서도 동시 개수는 put 을 호출한 스레드 수를 넘지 않는다)
+    private final ExecutorService streamReaderExecutor;
+    private final BulkDeleter bulkDeleter;
+    private final BulkExistenceChecker existenceChecker;
+
+    public AsyncS3ObjectStorage(S3AsyncClient s3AsyncClient, String bucketName, int streamReaderThreads,
+                                S3BulkOptions options, MeterRegistry meterRegistry, boolean virtualThreads) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.transferManager = S3TransferManager.builder().s3Client(s3AsyncClient).build();
+        this.bucketName = bucketName;
+        this.streamReaderExecutor = WorkerThreads.executor("s3-async-reader-", streamReaderThreads, virtualThreads);
+        this.bulkDeleter = new BulkDeleter(bucketName, s3AsyncClient::deleteObjects,
+                options.deleteParallelism(), options.deleteMaxAttempts(), options.deleteRetryBackoff());
+        this.existenceChecker = new BulkExistenceChecker(bucketName, s3AsyncClient::headObject,
+                s3AsyncClient::listObjectsV2, options, meterRegistry);
+    }
+
+    @Override
+    public void put(String key, InputStream in, long contentLength, String contentType) {
+        UploadRequest request = UploadRequest.builder()
+                .putObjectRequest(putObjectRequest(key, contentType))
+                .requestBody(AsyncRequestBody.fromInputStream(in, contentLength, streamReaderExecutor))
+                .build();
+        join(transferManager.upload(request).completionFuture());
+        existenceChecker.record(key, true);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(String key, Path source, String contentType) {
+        UploadFileRequest request = UploadFileRequest.builder()
+                .putObjectRequest(putObjectRequest(key, contentType))
+                .source(source)
+                .build();
+        return transferManager.uploadFile(request).completionFuture().thenApply(completed -> {
+            existenceChecker.record(key, true);
+            return (Void) null;
+        });
+    }
+
+    @Override
+    public ObjectDownload get(String key, String range, String ifNoneMatch) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range(range)
+                .ifNoneMatch(ifNoneMatch)
+                .build();
+
+        try {
+            //본문은 도착하는 대로 읽을 수 있는 스트림으로 받는다 (전체를 메모리에 모으지 않음)
+            ResponseInputStream<GetObjectResponse> body = join(
+                    s3AsyncClient.getObject(request, AsyncResponseTransformer.toBlockingInputStream()));
+            return S3Support.toDownload(body);
+        } catch (S3Exception e) {
+            return S3Support.handleGetError(e, key, range, ifNoneMatch);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return existenceChecker.exists(key);
+    }
+
+    @Override
+    public ExistenceResult exists(Collection<String> keys) {
+        return existenceChecker.check(keys);
+    }
+
+    @Override
+    public void delete(String key) {
+        join(s3AsyncClient.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build()));
+        existenceChecker.record(key, false);
+    }
+
+    @Override
+    public BulkDeleteResult delete(Collection<String> keys) {
+        BulkDeleteResult result = bulkDeleter.delete(keys);
+        result.deleted().forEach(key -> existenceChecker.record(key, false));
+        return result;
+    }
+
+    @Override
+    public String url(String key) {
+        return s3AsyncClient.utilities()
+                .getUrl(x -> x.bucket(bucketName).key(key))
+                .toString();
+    }
+
+    private PutObjectRequest putObjectRequest(String key, String contentType) {
+        return PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
+    }
+
+    //CompletionException 을 벗겨서 S3Exception 등 원래 예외를 던진다
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        transferManager.close();
+        s3AsyncClient.close();
+        streamReaderExecutor.shutdown();
+    }
+}
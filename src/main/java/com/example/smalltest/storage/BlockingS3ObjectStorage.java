@@ -0,0 +1,107 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * S3Client(동기, Apache HTTP 커넥션 풀) 기반 저장소 엔진
+ */
+public class BlockingS3ObjectStorage implements ObjectStorage, AutoCloseable {
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final S3StreamingUploader s3StreamingUploader;
+    //일괄 삭제, 일괄 존재 확인 요청을 동시에 보내는 스레드 (동시 요청 수는 각 작업에서 따로 제한)
+    private final ExecutorService bulkExecutor;
+    private final BulkDeleter bulkDeleter;
+    private final BulkExistenceChecker existenceChecker;
+
+    public BlockingS3ObjectStorage(S3Client s3Client, String bucketName, S3StreamingUploader s3StreamingUploader,
+                                   S3BulkOptions options, MeterRegistry meterRegistry, boolean virtualThreads) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.s3StreamingUploader = s3StreamingUploader;
+        this.bulkExecutor = WorkerThreads.executor("s3-bulk-",
+                Math.max(options.deleteParallelism(), options.existsConcurrency()), virtualThreads);
+        this.bulkDeleter = new BulkDeleter(bucketName,
+                request -> CompletableFuture.supplyAsync(() -> s3Client.deleteObjects(request), bulkExecutor),
+                options.deleteParallelism(), options.deleteMaxAttempts(), options.deleteRetryBackoff());
+        this.existenceChecker = new BulkExistenceChecker(bucketName,
+                request -> CompletableFuture.supplyAsync(() -> s3Client.headObject(request), bulkExecutor),
+                request -> CompletableFuture.supplyAsync(() -> s3Client.listObjectsV2(request), bulkExecutor),
+                options, meterRegistry);
+    }
+
+    @Override
+    public void put(String key, InputStream in, long contentLength, String contentType) throws IOException {
+        //작은 파일은 PutObject 스트리밍, 큰 파일은 멀티파트 업로드
+        s3StreamingUploader.upload(s3Client, bucketName, key, in, contentLength, contentType);
+        existenceChecker.record(key, true);
+    }
+
+    //객체 전체를 byte[] 로 복사하지 않고 S3 응답 스트림을 그대로 넘긴다 (Range, If-None-Match 는 S3에 그대로 전달)
+    @Override
+    public ObjectDownload get(String key, String range, String ifNoneMatch) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range(range)
+                .ifNoneMatch(ifNoneMatch)
+                .build();
+
+        try {
+            ResponseInputStream<GetObjectResponse> body = s3Client.getObject(request);
+            return S3Support.toDownload(body);
+        } catch (S3Exception e) {
+            return S3Support.handleGetError(e, key, range, ifNoneMatch);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return existenceChecker.exists(key);
+    }
+
+    @Override
+    public ExistenceResult exists(Collection<String> keys) {
+        return existenceChecker.check(keys);
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+        existenceChecker.record(key, false);
+    }
+
+    @Override
+    public BulkDeleteResult delete(Collection<String> keys) {
+        BulkDeleteResult result = bulkDeleter.delete(keys);
+        result.deleted().forEach(key -> existenceChecker.record(key, false));
+        return result;
+    }
+
+    @Override
+    public String url(String key) {
+        return s3Client.utilities()
+                .getUrl(x -> x.bucket(bucketName).key(key))
+                .toString();
+    }
+
+    @Override
+    public void close() {
+        bulkExecutor.shutdown();
+        s3Client.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.smalltest.storage;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 일괄 삭제 결과
+ * failed 는 재시도 후에도 지우지 못한 키 -> 마지막 오류 (S3 오류 코드 + 메시지)
+ */
+public record BulkDeleteResult(List<String> deleted, Map<String, String> failed) {
+
+    public static BulkDeleteResult allDeleted(List<String> keys) {
+        return new BulkDeleteResult(List.copyOf(keys), Map.of());
+    }
+
+    public boolean isComplete() {
+        return failed.isEmpty();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.smalltest.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * S3 일괄 삭제 (DeleteObjects 는 요청당 최대 1000개)
+ * 키를 1000개씩 나눠 최대 parallelism 개 요청을 동시에 보내고, 실패한 키만 모아서 다시 보낸다.
+ * 응답의 키별 오류 중 일시적인 오류(InternalError, SlowDown 등)만 재시도하고 권한 오류 등은 바로 실패로 남긴다.
+ */
+@Slf4j
+final class BulkDeleter {
+
+    static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private static final Set<String> RETRYABLE_CODES =
+            Set.of("InternalError", "SlowDown", "ServiceUnavailable", "RequestTimeout");
+
+    private record KeyError(String message, boolean retryable) {
+    }
+
+    private record ChunkOutcome(List<String> deleted, Map<String, KeyError> errors) {
+    }
+
+    private final String bucketName;
+    //DeleteObjects 호출 (blocking 엔진은 전용 스레드 풀에서, async 엔진은 S3AsyncClient 로 바로)
+    private final Function<DeleteObjectsRequest, CompletableFuture<DeleteObjectsResponse>> deleteObjects;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    BulkDeleter(String bucketName,
+                Function<DeleteObjectsRequest, CompletableFuture<DeleteObjectsResponse>> deleteObjects,
+                int parallelism, int maxAttempts, Duration retryBackoff) {
+        this.bucketName = bucketName;
+        this.deleteObjects = deleteObjects;
+        this.parallelism = parallelism;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    BulkDeleteResult delete(Collection<String> keys) {
+        List<String> pending = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<String> deleted = new ArrayList<>(pending.size());
+        Map<String, String> failed = new LinkedHashMap<>();
+        //재시도할 키 -> 마지막 오류
+        Map<String, KeyError> retry = new LinkedHashMap<>();
+
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            //재시도 대기 중에 인터럽트되면 더 보내지 않고 남은 키를 마지막 오류로 실패 처리 (인터럽트 상태는 유지)
+            if (attempt > 1 && !sleep(retryBackoff.multipliedBy(attempt - 1))) {
+                retry.forEach((key, error) -> failed.put(key, error.message() + " (재시도 대기 중 인터럽트)"));
+                break;
+            }
+
+            retry = new LinkedHashMap<>();
+            for (ChunkOutcome outcome : deleteChunks(pending)) {
+                deleted.addAll(outcome.deleted());
+                for (Map.Entry<String, KeyError> error : outcome.errors().entrySet()) {
+                    if (error.getValue().retryable() && attempt < maxAttempts) retry.put(error.getKey(), error.getValue());
+                    else failed.put(error.getKey(), error.getValue().message());
+                }
+            }
+            if (!retry.isEmpty()) {
+                log.debug("일괄 삭제 재시도 attempt={} keys={}", attempt, retry.size());
+            }
+            pending = new ArrayList<>(retry.keySet());
+        }
+        return new BulkDeleteResult(deleted, failed);
+    }
+
+    private List<ChunkOutcome> deleteChunks(List<String> keys) {
+        Semaphore permits = new Semaphore(parallelism);
+        List<CompletableFuture<ChunkOutcome>> futures = new ArrayList<>();
+
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_REQUEST) {
+            List<String> chunk = keys.subList(from, Math.min(from + MAX_KEYS_PER_REQUEST, keys.size()));
+            permits.acquireUninterruptibly();
+            futures.add(send(chunk).whenComplete((outcome, e) -> permits.release()));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private CompletableFuture<ChunkOutcome> send(List<String> chunk) {
+        CompletableFuture<DeleteObjectsResponse> future;
+        try {
+            //quiet 모드: 응답에는 실패한 키만 담긴다
+            future = deleteObjects.apply(S3Support.deleteObjectsRequest(bucketName, chunk, true));
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.handle((response, e) -> e == null ? toOutcome(chunk, response) : toOutcome(chunk, unwrap(e)));
+    }
+
+    private static ChunkOutcome toOutcome(List<String> chunk, DeleteObjectsResponse response) {
+        Map<String, KeyError> errors = new LinkedHashMap<>();
+        for (S3Error error : response.errors()) {
+            errors.put(error.key(), new KeyError(error.code() + ": " + error.message(),
+                    RETRYABLE_CODES.contains(error.code())));
+        }
+        List<String> deleted = chunk.stream().filter(key -> !errors.containsKey(key)).toList();
+        return new ChunkOutcome(deleted, errors);
+    }
+
+    //요청 자체가 실패하면 청크 전체가 같은 오류로 실패 (5xx, 스로틀링, 네트워크 오류는 재시도)
+    private static ChunkOutcome toOutcome(List<String> chunk, Throwable e) {
+        boolean retryable = e instanceof SdkClientException
+                || (e instanceof S3Exception s3 && (s3.statusCode() >= 500 || s3.isThrottlingException()));
+        KeyError error = new KeyError(e.getClass().getSimpleName() + ": " + e.getMessage(), retryable);
+        Map<String, KeyError> errors = new LinkedHashMap<>();
+        chunk.forEach(key -> errors.put(key, error));
+        return new ChunkOutcome(List.of(), errors);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    //인터럽트되면 false
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.smalltest.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * S3 일괄 존재 확인
+ * 키를 prefix("/" 까지, 루트 키는 "") 로 묶어서, 같은 prefix 의 키가 많으면 ListObjectsV2 한 페이지(최대 1000개)로 여러 키를 한 번에 확인하고
+ * 적으면 HEAD 를 최대 concurrency 개씩 병렬로 보낸다.
+ * 목록은 매 페이지 아직 확인하지 못한 가장 작은 키 바로 앞(startAfter)부터 읽어서, 요청한 키 사이의 관계없는 키는 건너뛴다.
+ * 결과는 짧은 TTL 로 캐시해서(있음 / 없음 각각 TTL) 같은 키를 반복 확인할 때 S3 에 다시 가지 않는다.
+ */
+@Slf4j
+final class BulkExistenceChecker {
+
+    static final String CACHE_NAME = "s3Exists";
+
+    private record HeadOutcome(String key, Boolean exists, String error) {
+    }
+
+    private final String bucketName;
+    private final Function<HeadObjectRequest, CompletableFuture<HeadObjectResponse>> headObject;
+    private final Function<ListObjectsV2Request, CompletableFuture<ListObjectsV2Response>> listObjects;
+    private final int concurrency;
+    private final int listThreshold;
+    private final int maxListPages;
+    private final Cache<String, Boolean> cache;
+
+    BulkExistenceChecker(String bucketName,
+                         Function<HeadObjectRequest, CompletableFuture<HeadObjectResponse>> headObject,
+                         Function<ListObjectsV2Request, CompletableFuture<ListObjectsV2Response>> listObjects,
+                         S3BulkOptions options,
+                         MeterRegistry meterRegistry) {
+        this.bucketName = bucketName;
+        this.headObject = headObject;
+        this.listObjects = listObjects;
+        this.concurrency = options.existsConcurrency();
+        this.listThreshold = options.existsListThreshold();
+        this.maxListPages = options.existsMaxListPages();
+        long positiveTtlNanos = options.existsPositiveTtl().toNanos();
+        long negativeTtlNanos = options.existsNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(options.existsCacheSize())
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String key, Boolean exists, long currentTime) {
+                        return exists ? positiveTtlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Boolean exists, long currentTime, long currentDuration) {
+                        return exists ? positiveTtlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 키 하나 확인, 404 가 아닌 오류는 그대로 던진다
+     */
+    boolean exists(String key) {
+        Boolean cached = cache.getIfPresent(key);
+        if (cached != null) return cached;
+
+        try {
+            join(headObject.apply(headRequest(key)));
+            record(key, true);
+            return true;
+        } catch (S3Exception e) {
+            if (e.statusCode() != 404) throw e;
+            record(key, false);
+            return false;
+        }
+    }
+
+    ExistenceResult check(Collection<String> keys) {
+        Set<String> existing = new LinkedHashSet<>();
+        Set<String> missing = new LinkedHashSet<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+
+        //1. 캐시에 있는 키는 바로 결과에 담는다
+        Map<String, List<String>> byPrefix = new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            Boolean cached = cache.getIfPresent(key);
+            if (cached == null) byPrefix.computeIfAbsent(prefixOf(key), prefix -> new ArrayList<>()).add(key);
+            else (cached ? existing : missing).add(key);
+        }
+
+        //2. 키가 많은 prefix 는 목록 조회, 나머지는 HEAD
+        List<String> toHead = new ArrayList<>();
+        for (Map.Entry<String, List<String>> group : byPrefix.entrySet()) {
+            if (group.getValue().size() < listThreshold) {
+                toHead.addAll(group.getValue());
+            } else {
+                toHead.addAll(listPrefix(group.getKey(), group.getValue(), existing, missing));
+            }
+        }
+
+        //3. HEAD 병렬 실행 (동시에 최대 concurrency 개)
+        for (HeadOutcome outcome : headAll(toHead)) {
+            if (outcome.error() != null) failed.put(outcome.key(), outcome.error());
+            else (outcome.exists() ? existing : missing).add(outcome.key());
+        }
+        return new ExistenceResult(existing, missing, failed);
+    }
+
+    /**
+     * 업로드/삭제 직후 캐시를 실제 상태로 맞춘다
+     */
+    void record(String key, boolean exists) {
+        cache.put(key, exists);
+    }
+
+    /**
+     * prefix 목록을 최대 maxListPages 페이지까지 읽어서 확인, 확인하지 못한 키를 돌려준다 (HEAD 로 확인)
+     */
+    private List<String> listPrefix(String prefix, List<String> keys, Set<String> existing, Set<String> missing) {
+        //목록은 키 순서로 오므로 한 페이지는 startAfter 부터 마지막 키까지 빈틈없는 구간이다
+        NavigableSet<String> remaining = new TreeSet<>(keys);
+
+        try {
+            for (int page = 0; page < maxListPages && !remaining.isEmpty(); page++) {
+                ListObjectsV2Response response = join(listObjects.apply(ListObjectsV2Request.builder()
+                        .bucket(bucketName)
+                        .prefix(prefix)
+                        .startAfter(startAfter(remaining.first()))
+                        .build()));
+
+                for (S3Object object : response.contents()) {
+                    if (remaining.remove(object.key())) {
+                        record(object.key(), true);
+                        existing.add(object.key());
+                    }
+                }
+
+                //마지막 페이지면 남은 키 전부, 아니면 이 페이지 구간 안의 남은 키가 없는 키
+                List<S3Object> contents = response.contents();
+                boolean truncated = Boolean.TRUE.equals(response.isTruncated());
+                if (truncated && contents.isEmpty()) break;
+                Set<String> absent = truncated
+                        ? remaining.headSet(contents.get(contents.size() - 1).key(), true)
+                        : remaining;
+                for (String key : absent) {
+                    record(key, false);
+                    missing.add(key);
+                }
+                absent.clear();
+            }
+            if (!remaining.isEmpty()) {
+                log.debug("prefix 목록 페이지 한도 초과 prefix={} 남은 키={}", prefix, remaining.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("prefix 목록 조회 실패, HEAD 로 확인 prefix={}: {}", prefix, e.getMessage());
+        }
+        return new ArrayList<>(remaining);
+    }
+
+    //startAfter 는 그 키를 빼고 다음부터 돌려주므로, key 보다 바로 작은 값(마지막 글자를 뺀 앞부분)을 쓴다
+    static String startAfter(String key) {
+        return key.length() > 1 ? key.substring(0, key.length() - 1) : null;
+    }
+
+    private List<HeadOutcome> headAll(List<String> keys) {
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<HeadOutcome>> futures = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            permits.acquireUninterruptibly();
+            futures.add(head(key).whenComplete((outcome, e) -> permits.release()));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private CompletableFuture<HeadOutcome> head(String key) {
+        CompletableFuture<HeadObjectResponse> future;
+        try {
+            future = headObject.apply(headRequest(key));
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.handle((response, e) -> {
+            Throwable cause = unwrap(e);
+            if (cause == null || (cause instanceof S3Exception s3 && s3.statusCode() == 404)) {
+                boolean exists = cause == null;
+                record(key, exists);
+                return new HeadOutcome(key, exists, null);
+            }
+            //403, 5xx 등은 캐시하지 않고 실패로 남긴다
+            return new HeadOutcome(key, null, cause.getClass().getSimpleName() + ": " + cause.getMessage());
+        });
+    }
+
+    private HeadObjectRequest headRequest(String key) {
+        return HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+    }
+
+    //"orders/2024/a.png" -> "orders/2024/", "a.png" -> ""
+    static String prefixOf(String key) {
+        int slash = key.lastIndexOf('/');
+        return slash < 0 ? "" : key.substring(0, slash + 1);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.exception.RangeNotSatisfiableException;
+
+/**
+ * HTTP Range 헤더의 단일 바이트 범위 (bytes=0-99, bytes=100-, bytes=-100)
+ */
+public record ByteRange(long start, long end) {
+
+    /**
+     * range 가 null 이면 null 을 반환 (전체 조회)
+     */
+    public static ByteRange parse(String range, long objectLength) {
+        if (range == null) return null;
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) throw new RangeNotSatisfiableException(range);
+
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) throw new RangeNotSatisfiableException(range);
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                //마지막 n 바이트
+                long suffix = Long.parseLong(spec.substring(1));
+                start = Math.max(objectLength - suffix, 0);
+                end = objectLength - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? objectLength - 1
+                        : Math.min(Long.parseLong(spec.substring(dash + 1)), objectLength - 1);
+            }
+            if (start > end || start >= objectLength) throw new RangeNotSatisfiableException(range);
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            throw new RangeNotSatisfiableException(range);
+        }
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String toContentRange(long objectLength) {
+        return "bytes " + start + "-" + end + "/" + objectLength;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.smalltest.storage;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 일괄 존재 확인 결과
+ * failed 는 404 가 아닌 오류로 확인하지 못한 키 -> 오류 (하나가 실패해도 나머지 결과는 돌려준다)
+ */
+public record ExistenceResult(Set<String> existing, Set<String> missing, Map<String, String> failed) {
+
+    public boolean exists(String key) {
+        return existing.contains(key);
+    }
+
+    public boolean isComplete() {
+        return failed.isEmpty();
+    }
+
+    /**
+     * 객체 키를 다른 값(예: 파일 URL)으로 바꾼 결과
+     */
+    public ExistenceResult mapKeys(Function<String, String> mapper) {
+        Set<String> mappedExisting = new LinkedHashSet<>();
+        existing.forEach(key -> mappedExisting.add(mapper.apply(key)));
+        Set<String> mappedMissing = new LinkedHashSet<>();
+        missing.forEach(key -> mappedMissing.add(mapper.apply(key)));
+        Map<String, String> mappedFailed = new LinkedHashMap<>();
+        failed.forEach((key, error) -> mappedFailed.put(mapper.apply(key), error));
+        return new ExistenceResult(mappedExisting, mappedMissing, mappedFailed);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.exception.AttachmentNotFoundException;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * S3 없이 동작하는 인메모리 객체 저장소 (테스트, 로컬 개발용)
+ * app.storage.engine=memory 일 때 S3 대신 사용된다.
+ */
+public class InMemoryObjectStorage implements ObjectStorage {
+
+    public record StoredObject(byte[] content, String contentType, String eTag) {
+    }
+
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, InputStream in, long contentLength, String contentType) throws IOException {
+        store(key, in.readNBytes((int) contentLength), contentType);
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        store(key, Files.readAllBytes(source), contentType);
+    }
+
+    private void store(String key, byte[] content, String contentType) {
+        objects.put(key, new StoredObject(content, contentType, "\"" + DigestUtils.md5DigestAsHex(content) + "\""));
+    }
+
+    @Override
+    public ObjectDownload get(String key, String range, String ifNoneMatch) {
+        StoredObject object = objects.get(key);
+        if (object == null) throw new AttachmentNotFoundException("존재하지 않는 파일 " + key);
+        if (object.eTag().equals(ifNoneMatch)) return ObjectDownload.notModified(object.eTag());
+
+        byte[] content = object.content();
+        ByteRange byteRange = ByteRange.parse(range, content.length);
+        if (byteRange == null) {
+            return new ObjectDownload(new ByteArrayInputStream(content), false, object.eTag(),
+                    content.length, null, object.contentType());
+        }
+        return new ObjectDownload(new ByteArrayInputStream(content, (int) byteRange.start(), (int) byteRange.length()),
+                false, object.eTag(), byteRange.length(), byteRange.toContentRange(content.length), object.contentType());
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return objects.containsKey(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        objects.remove(key);
+    }
+
+    @Override
+    public BulkDeleteResult delete(Collection<String> keys) {
+        keys.forEach(objects::remove);
+        return BulkDeleteResult.allDeleted(List.copyOf(new LinkedHashSet<>(keys)));
+    }
+
+    @Override
+    public String url(String key) {
+        return "memory://" + key;
+    }
+
+    public StoredObject get(String key) {
+        return objects.get(key);
+    }
+
+    /**
+     * 저장된 객체 전부 삭제 (벤치마크 반복 사이)
+     */
+    public void clear() {
+        objects.clear();
+    }
+}
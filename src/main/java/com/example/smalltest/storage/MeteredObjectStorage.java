@@ -0,0 +1,120 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.metrics.OperationTimers;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 저장소 엔진(blocking / async / memory) 앞에서 작업별 처리 시간과 주고받은 바이트 수를 기록한다.
+ * 서비스 쪽에서 호출마다 재지 않아도 저장소를 쓰는 모든 경로(파일 API, 첨부 파일 업로드 대기열, 주문 첨부 다운로드)가 같은 지표에 잡힌다.
+ * s3.operation: 처리 시간 (operation, outcome), s3.operation.bytes: 바이트 수 (direction)
+ */
+public class MeteredObjectStorage implements ObjectStorage {
+
+    //s3.operation 타이머의 operation 태그
+    enum Operation {
+        UPLOAD,
+        DOWNLOAD,
+        EXISTS,
+        EXISTS_BULK,
+        DELETE,
+        DELETE_BULK
+    }
+
+    private final ObjectStorage delegate;
+    //호출마다 태그를 만들지 않도록 작업별 타이머 / 전송 바이트 수 미터는 시작할 때 등록해 둔다
+    private final OperationTimers<Operation> timers;
+    private final DistributionSummary uploadedBytes;
+    private final DistributionSummary downloadedBytes;
+
+    public MeteredObjectStorage(ObjectStorage delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timers = new OperationTimers<>(meterRegistry, "s3.operation", "S3 작업 처리 시간", Operation.class);
+        this.uploadedBytes = bytesSummary(meterRegistry, "upload");
+        this.downloadedBytes = bytesSummary(meterRegistry, "download");
+    }
+
+    private static DistributionSummary bytesSummary(MeterRegistry meterRegistry, String direction) {
+        return DistributionSummary.builder("s3.operation.bytes")
+                .description("S3 로 주고받은 바이트 수")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void put(String key, InputStream in, long contentLength, String contentType) throws IOException {
+        timers.run(Operation.UPLOAD, () -> {
+            delegate.put(key, in, contentLength, contentType);
+            uploadedBytes.record(contentLength);
+        });
+    }
+
+    //엔진마다 파일 업로드를 따로 구현하므로 (멀티파트 등) 기본 구현을 쓰지 않고 그대로 넘긴다
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        timers.run(Operation.UPLOAD, () -> {
+            delegate.put(key, source, contentType);
+            uploadedBytes.record(Files.size(source));
+        });
+    }
+
+    //처리 시간은 업로드가 끝날 때까지 (호출이 돌아온 뒤에 끝나므로 시작 시각을 직접 넘긴다)
+    @Override
+    public CompletableFuture<Void> putAsync(String key, Path source, String contentType) {
+        long start = System.nanoTime();
+        long size;
+        try {
+            size = Files.size(source);
+        } catch (IOException e) {
+            timers.record(Operation.UPLOAD, start, false);
+            return CompletableFuture.failedFuture(e);
+        }
+        return delegate.putAsync(key, source, contentType).whenComplete((result, e) -> {
+            if (e == null) uploadedBytes.record(size);
+            timers.record(Operation.UPLOAD, start, e == null);
+        });
+    }
+
+    //처리 시간은 스트림을 여는 데까지(첫 바이트), 바이트 수는 응답할 본문 크기
+    @Override
+    public ObjectDownload get(String key, String range, String ifNoneMatch) {
+        return timers.time(Operation.DOWNLOAD, () -> {
+            ObjectDownload download = delegate.get(key, range, ifNoneMatch);
+            if (!download.notModified()) downloadedBytes.record(download.contentLength());
+            return download;
+        });
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return timers.time(Operation.EXISTS, () -> delegate.exists(key));
+    }
+
+    @Override
+    public ExistenceResult exists(Collection<String> keys) {
+        return timers.time(Operation.EXISTS_BULK, () -> delegate.exists(keys));
+    }
+
+    @Override
+    public void delete(String key) {
+        timers.run(Operation.DELETE, () -> delegate.delete(key));
+    }
+
+    @Override
+    public BulkDeleteResult delete(Collection<String> keys) {
+        return timers.time(Operation.DELETE_BULK, () -> delegate.delete(keys));
+    }
+
+    @Override
+    public String url(String key) {
+        return delegate.url(key);
+    }
+}
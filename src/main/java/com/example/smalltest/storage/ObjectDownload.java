@@ -0,0 +1,24 @@
+package com.example.smalltest.storage;
+
+import java.io.InputStream;
+
+/**
+ * 객체 저장소에서 연 다운로드 스트림
+ * notModified 이면 body 는 null (If-None-Match 가 현재 ETag 와 같음)
+ * contentRange 가 있으면 Range 요청에 대한 부분 응답
+ */
+public record ObjectDownload(InputStream body,
+                             boolean notModified,
+                             String eTag,
+                             long contentLength,
+                             String contentRange,
+                             String contentType) {
+
+    public static ObjectDownload notModified(String eTag) {
+        return new ObjectDownload(null, true, eTag, 0, null, null);
+    }
+
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+}
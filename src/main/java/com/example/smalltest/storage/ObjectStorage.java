@@ -0,0 +1,82 @@
+package com.example.smalltest.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 객체 저장소 엔진 (app.storage.engine)
+ * blocking: S3Client, async: CRT 기반 S3AsyncClient + Transfer Manager, memory: 테스트/벤치마크용 인메모리
+ * S3FileService, S3PrivateFileService 와 첨부 파일 업로드 대기열은 모두 이 인터페이스를 통해 저장소에 접근한다.
+ */
+public interface ObjectStorage {
+
+    /**
+     * 길이를 알고 있는 스트림을 업로드 (힙에 전체 내용을 올리지 않음)
+     */
+    void put(String key, InputStream in, long contentLength, String contentType) throws IOException;
+
+    default void put(String key, Path source, String contentType) throws IOException {
+        try (InputStream in = Files.newInputStream(source)) {
+            put(key, in, Files.size(source), contentType);
+        }
+    }
+
+    /**
+     * 파일 업로드를 비동기로 시작, 기본 구현은 호출한 스레드에서 업로드를 끝내고 완료된 future 를 반환한다.
+     */
+    default CompletableFuture<Void> putAsync(String key, Path source, String contentType) {
+        try {
+            put(key, source, contentType);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 객체를 스트림으로 연다 (호출한 쪽에서 body 를 닫아야 함)
+     * @param range HTTP Range 헤더 값, 없으면 null
+     * @param ifNoneMatch 클라이언트가 가진 ETag, 같으면 본문 없이 notModified 반환
+     */
+    ObjectDownload get(String key, String range, String ifNoneMatch);
+
+    boolean exists(String key);
+
+    /**
+     * 여러 객체의 존재 여부를 한 번에 확인, 확인하지 못한 키는 결과의 failed 에 담는다 (예외를 던지지 않음)
+     * 기본 구현은 키마다 exists 를 호출한다.
+     */
+    default ExistenceResult exists(Collection<String> keys) {
+        Set<String> existing = new LinkedHashSet<>();
+        Set<String> missing = new LinkedHashSet<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            try {
+                (exists(key) ? existing : missing).add(key);
+            } catch (RuntimeException e) {
+                failed.put(key, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        return new ExistenceResult(existing, missing, failed);
+    }
+
+    void delete(String key);
+
+    /**
+     * 여러 객체 삭제, 키 개수 제한 없이 나눠서 보내고 지우지 못한 키는 결과로 돌려준다 (예외를 던지지 않음)
+     */
+    BulkDeleteResult delete(Collection<String> keys);
+
+    /**
+     * 객체의 URL (public 버킷에서 바로 접근할 때 사용)
+     */
+    String url(String key);
+}
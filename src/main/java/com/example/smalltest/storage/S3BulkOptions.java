@@ -0,0 +1,20 @@
+package com.example.smalltest.storage;
+
+import java.time.Duration;
+
+/**
+ * S3 엔진의 일괄 삭제, 일괄 존재 확인 설정 (app.storage.s3.delete.*, app.storage.s3.exists.*)
+ *
+ * @param existsListThreshold 같은 prefix 의 키가 이 개수 이상이면 HEAD 대신 ListObjectsV2 로 확인
+ * @param existsMaxListPages  prefix 목록을 이 페이지 수까지만 읽고, 남은 키는 HEAD 로 확인
+ */
+public record S3BulkOptions(int deleteParallelism,
+                            int deleteMaxAttempts,
+                            Duration deleteRetryBackoff,
+                            int existsConcurrency,
+                            int existsListThreshold,
+                            int existsMaxListPages,
+                            Duration existsPositiveTtl,
+                            Duration existsNegativeTtl,
+                            long existsCacheSize) {
+}
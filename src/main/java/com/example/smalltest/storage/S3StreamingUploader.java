@@ -0,0 +1,194 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.concurrent.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * MultipartFile.getBytes() 없이 입력 스트림에서 바로 S3로 업로드
+ * 작은 파일은 PutObject 한 번으로 스트리밍하고, 임계값을 넘는 파일은 멀티파트 업로드로 파트를 병렬 전송한다.
+ * 파트 버퍼는 애플리케이션 전체에서 max-buffers 개까지만 만들기 때문에
+ * 파일 크기나 동시 업로드 수와 상관없이 업로드에 쓰는 힙은 part-size * max-buffers 를 넘지 않는다.
+ */
+@Slf4j
+@Component
+public class S3StreamingUploader {
+
+    //S3 멀티파트 업로드의 최소 파트 크기 (마지막 파트 제외)
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
+    private final int partSize;
+    private final long multipartThreshold;
+    private final Semaphore bufferPermits;
+    //파트 동시 전송 수 (가상 스레드 모드에서는 실행기가 제한하지 않으므로 여기서 제한)
+    private final Semaphore partPermits;
+    private final Queue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+    private final ExecutorService partExecutor;
+
+    public S3StreamingUploader(@Value("${app.s3.upload.part-size:8MB}") DataSize partSize,
+                               @Value("${app.s3.upload.multipart-threshold:16MB}") DataSize multipartThreshold,
+                               @Value("${app.s3.upload.max-buffers:8}") int maxBuffers,
+                               @Value("${app.s3.upload.part-concurrency:4}") int partConcurrency,
+                               @Value(WorkerThreads.VIRTUAL_THREADS_PROPERTY) boolean virtualThreads) {
+        this.partSize = (int) Math.max(partSize.toBytes(), MIN_PART_SIZE);
+        this.multipartThreshold = multipartThreshold.toBytes();
+        this.bufferPermits = new Semaphore(maxBuffers);
+        this.partPermits = new Semaphore(partConcurrency);
+        this.partExecutor = WorkerThreads.executor("s3-upload-part-", partConcurrency, virtualThreads);
+    }
+
+    public void upload(S3Client s3Client, String bucketName, String key,
+                       InputStream in, long contentLength, String contentType) throws IOException {
+        if (contentLength <= multipartThreshold) {
+            //길이를 알고 있으므로 스트림에서 바로 전송
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength(contentLength)
+                    .build();
+            s3Client.putObject(request, RequestBody.fromInputStream(in, contentLength));
+            return;
+        }
+        uploadMultipart(s3Client, bucketName, key, in, contentLength, contentType);
+    }
+
+    private void uploadMultipart(S3Client s3Client, String bucketName, String key,
+                                 InputStream in, long contentLength, String contentType) throws IOException {
+        //1. 멀티파트 업로드 시작
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            //2. 파트 크기만큼 읽어서 병렬 전송 (버퍼가 모두 사용 중이면 읽기를 멈추고 기다림)
+            long remaining = contentLength;
+            int partNumber = 1;
+            while (remaining > 0) {
+                failIfAnyPartFailed(parts);
+                byte[] buffer = acquireBuffer();
+                int length;
+                try {
+                    length = readFully(in, buffer, (int) Math.min(buffer.length, remaining));
+                } catch (IOException e) {
+                    releaseBuffer(buffer);
+                    throw e;
+                }
+                remaining -= length;
+
+                int number = partNumber++;
+                parts.add(CompletableFuture
+                        .supplyAsync(() -> uploadPartLimited(s3Client, bucketName, key, uploadId, number, buffer, length), partExecutor)
+                        .whenComplete((part, error) -> releaseBuffer(buffer)));
+            }
+
+            //3. 모든 파트가 끝나면 업로드 완료 요청
+            List<CompletedPart> completedParts = parts.stream().map(CompletableFuture::join).toList();
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            abort(s3Client, bucketName, key, uploadId);
+            if (e instanceof CompletionException && e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private CompletedPart uploadPartLimited(S3Client s3Client, String bucketName, String key, String uploadId,
+                                            int partNumber, byte[] buffer, int length) {
+        partPermits.acquireUninterruptibly();
+        try {
+            return uploadPart(s3Client, bucketName, key, uploadId, partNumber, buffer, length);
+        } finally {
+            partPermits.release();
+        }
+    }
+
+    private CompletedPart uploadPart(S3Client s3Client, String bucketName, String key, String uploadId,
+                                     int partNumber, byte[] buffer, int length) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) length)
+                .build();
+        //ByteArrayInputStream 은 mark/reset 을 지원하므로 SDK가 재시도를 위해 버퍼를 복사하지 않는다
+        UploadPartResponse response = s3Client.uploadPart(request,
+                RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length));
+        return CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(response.eTag())
+                .build();
+    }
+
+    private void failIfAnyPartFailed(List<CompletableFuture<CompletedPart>> parts) {
+        for (CompletableFuture<CompletedPart> part : parts) {
+            if (part.isCompletedExceptionally()) part.join();
+        }
+    }
+
+    private void abort(S3Client s3Client, String bucketName, String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("멀티파트 업로드 취소 실패 key={} uploadId={}", key, uploadId, e);
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int read = in.readNBytes(buffer, 0, length);
+        if (read < length) throw new EOFException("파일 크기보다 스트림이 짧습니다. expected=" + length + " read=" + read);
+        return read;
+    }
+
+    private byte[] acquireBuffer() throws IOException {
+        try {
+            bufferPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("업로드 버퍼 대기 중 인터럽트", e);
+        }
+        byte[] buffer = freeBuffers.poll();
+        return buffer != null ? buffer : new byte[partSize];
+    }
+
+    private void releaseBuffer(byte[] buffer) {
+        freeBuffers.offer(buffer);
+        bufferPermits.release();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdown();
+    }
+}
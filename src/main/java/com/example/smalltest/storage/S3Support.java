@@ -0,0 +1,48 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.exception.AttachmentNotFoundException;
+import com.example.smalltest.exception.RangeNotSatisfiableException;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.Collection;
+
+/**
+ * blocking / async S3 엔진이 함께 쓰는 요청, 응답 변환
+ */
+final class S3Support {
+
+    private S3Support() {
+    }
+
+    static ObjectDownload toDownload(ResponseInputStream<GetObjectResponse> body) {
+        GetObjectResponse response = body.response();
+        return new ObjectDownload(body, false, response.eTag(), response.contentLength(),
+                response.contentRange(), response.contentType());
+    }
+
+    /**
+     * 304: 클라이언트가 가진 ETag 와 같음, 404: 객체 없음, 416: 객체 범위를 벗어난 Range
+     */
+    static ObjectDownload handleGetError(S3Exception e, String key, String range, String ifNoneMatch) {
+        if (e.statusCode() == 304) return ObjectDownload.notModified(ifNoneMatch);
+        if (e instanceof NoSuchKeyException || e.statusCode() == 404) {
+            throw new AttachmentNotFoundException("존재하지 않는 파일 " + key);
+        }
+        if (e.statusCode() == 416) throw new RangeNotSatisfiableException(range);
+        throw e;
+    }
+
+    static DeleteObjectsRequest deleteObjectsRequest(String bucketName, Collection<String> keys, boolean quiet) {
+        Delete delete = Delete.builder()
+                .objects(keys.stream()
+                        .map(key -> ObjectIdentifier.builder().key(key).build())
+                        .toList())
+                .quiet(quiet)
+                .build();
+        return DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(delete)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.concurrent.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Duration;
+
+/**
+ * 객체 저장소 엔진 선택 (app.storage.engine)
+ * blocking: S3Client + Apache HTTP 커넥션 풀(기본), async: CRT 기반 S3AsyncClient + Transfer Manager, memory: 인메모리
+ * 커넥션 풀 크기, 동시 요청 수, 목표 처리량은 app.storage.s3.* 로 조정한다.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Value("${spring.cloud.aws.credentials.access-key}")
+    private String accessKey;
+
+    @Value("${spring.cloud.aws.credentials.secret-key}")
+    private String secretKey;
+
+    @Value("${spring.cloud.aws.region.static}")
+    private String region;
+
+    @Value("${spring.cloud.aws.s3.bucket}")
+    private String bucketName;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.storage.engine", havingValue = "blocking", matchIfMissing = true)
+    public BlockingS3ObjectStorage blockingS3ObjectStorage(
+            S3StreamingUploader s3StreamingUploader,
+            S3BulkOptions s3BulkOptions,
+            MeterRegistry meterRegistry,
+            @Value("${app.storage.s3.max-connections:50}") int maxConnections,
+            @Value("${app.storage.s3.connection-timeout:2s}") Duration connectionTimeout,
+            @Value(WorkerThreads.VIRTUAL_THREADS_PROPERTY) boolean virtualThreads) {
+        //기본값(커넥션 50개)보다 동시 업로드가 많으면 커넥션 대기가 생기므로 풀 크기를 설정으로 뺀다
+        S3Client s3Client = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionTimeout(connectionTimeout))
+                .build();
+        return new BlockingS3ObjectStorage(s3Client, bucketName, s3StreamingUploader, s3BulkOptions, meterRegistry,
+                virtualThreads);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.storage.engine", havingValue = "async")
+    public AsyncS3ObjectStorage asyncS3ObjectStorage(
+            S3BulkOptions s3BulkOptions,
+            MeterRegistry meterRegistry,
+            @Value("${app.storage.s3.max-concurrency:64}") int maxConcurrency,
+            @Value("${app.storage.s3.target-throughput-gbps:5.0}") double targetThroughputGbps,
+            @Value("${app.storage.s3.minimum-part-size:8MB}") DataSize minimumPartSize,
+            @Value("${app.storage.s3.stream-reader-threads:4}") int streamReaderThreads,
+            @Value(WorkerThreads.VIRTUAL_THREADS_PROPERTY) boolean virtualThreads) {
+        //CRT 클라이언트는 목표 처리량에 맞춰 커넥션 수를 스스로 정하고, 큰 객체는 파트로 나눠 병렬 전송한다
+        S3AsyncClient s3AsyncClient = S3AsyncClient.crtBuilder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .maxConcurrency(maxConcurrency)
+                .targetThroughputInGbps(targetThroughputGbps)
+                .minimumPartSizeInBytes(minimumPartSize.toBytes())
+                .build();
+        return new AsyncS3ObjectStorage(s3AsyncClient, bucketName, streamReaderThreads, s3BulkOptions, meterRegistry,
+                virtualThreads);
+    }
+
+    @Bean
+    public S3BulkOptions s3BulkOptions(
+            @Value("${app.storage.s3.delete.parallelism:4}") int deleteParallelism,
+            @Value("${app.storage.s3.delete.max-attempts:3}") int deleteMaxAttempts,
+            @Value("${app.storage.s3.delete.retry-backoff:200ms}") Duration deleteRetryBackoff,
+            @Value("${app.storage.s3.exists.concurrency:16}") int existsConcurrency,
+            @Value("${app.storage.s3.exists.list-threshold:100}") int existsListThreshold,
+            @Value("${app.storage.s3.exists.max-list-pages:5}") int existsMaxListPages,
+            @Value("${app.storage.s3.exists.positive-ttl:5m}") Duration existsPositiveTtl,
+            @Value("${app.storage.s3.exists.negative-ttl:30s}") Duration existsNegativeTtl,
+            @Value("${app.storage.s3.exists.cache-size:100000}") long existsCacheSize) {
+        return new S3BulkOptions(deleteParallelism, deleteMaxAttempts, deleteRetryBackoff,
+                existsConcurrency, existsListThreshold, existsMaxListPages,
+                existsPositiveTtl, existsNegativeTtl, existsCacheSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.engine", havingValue = "memory")
+    public InMemoryObjectStorage inMemoryObjectStorage() {
+        return new InMemoryObjectStorage();
+    }
+
+    //엔진과 상관없이 저장소 작업 지표를 기록, ObjectStorage 를 주입받는 곳은 모두 이 빈을 받는다
+    //(자기 자신은 후보에서 빠지므로 objectStorage 에는 위의 엔진 빈이 들어온다)
+    @Bean
+    @Primary
+    public MeteredObjectStorage meteredObjectStorage(ObjectStorage objectStorage, MeterRegistry meterRegistry) {
+        return new MeteredObjectStorage(objectStorage, meterRegistry);
+    }
+
+    //Pre-signed URL 서명은 로컬에서 계산하므로 엔진과 상관없이 하나만 둔다
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        return S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .build();
+    }
+
+    private AwsCredentialsProvider credentialsProvider() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
+}
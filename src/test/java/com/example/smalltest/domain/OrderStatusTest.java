@@ -0,0 +1,51 @@
+package com.example.smalltest.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("주문 상태 전환 규칙")
+class OrderStatusTest {
+
+    @Test
+    @DisplayName("성공: canTransitionTo 는 allowedNextStatuses 와 같은 규칙")
+    void canTransitionTo_MatchesAllowedNextStatuses() {
+        for (OrderStatus from : OrderStatus.values()) {
+            for (OrderStatus to : OrderStatus.values()) {
+                assertThat(from.canTransitionTo(to))
+                        .as("%s -> %s", from, to)
+                        .isEqualTo(from.allowedNextStatuses().contains(to));
+            }
+            assertThat(from.canTransitionTo(null)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("성공: 상태별 전환 가능한 다음 상태")
+    void allowedNextStatuses() {
+        assertThat(OrderStatus.PENDING.allowedNextStatuses()).containsExactly(OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+        assertThat(OrderStatus.CONFIRMED.allowedNextStatuses()).containsExactly(OrderStatus.PREPARING, OrderStatus.CANCELLED);
+        assertThat(OrderStatus.PREPARING.allowedNextStatuses()).containsExactly(OrderStatus.COMPLETED);
+        assertThat(OrderStatus.COMPLETED.allowedNextStatuses()).isEmpty();
+        assertThat(OrderStatus.CANCELLED.allowedNextStatuses()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("성공: 완료/취소만 종료 상태")
+    void isTerminal() {
+        assertThat(EnumSet.allOf(OrderStatus.class))
+                .filteredOn(OrderStatus::isTerminal)
+                .containsExactlyInAnyOrder(OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("성공: 다음 상태 목록은 미리 만들어 둔 같은 인스턴스이고 변경할 수 없다")
+    void allowedNextStatuses_SharedAndUnmodifiable() {
+        assertThat(OrderStatus.PENDING.allowedNextStatuses()).isSameAs(OrderStatus.PENDING.allowedNextStatuses());
+        assertThatThrownBy(() -> OrderStatus.PENDING.allowedNextStatuses().add(OrderStatus.COMPLETED))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
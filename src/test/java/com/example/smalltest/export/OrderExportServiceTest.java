@@ -0,0 +1,186 @@
+package com.example.smalltest.export;
+
+import com.example.smalltest.domain.Menu;
+import com.example.smalltest.domain.Order;
+import com.example.smalltest.exception.InvalidOrderQueryException;
+import com.example.smalltest.exception.OrderExportBusyException;
+import com.example.smalltest.repository.MenuRepository;
+import com.example.smalltest.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("주문 내보내기")
+class OrderExportServiceTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private OrderExportService orderExportService;
+    private Menu americano;
+    private Menu latte;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService = new OrderExportService(orderRepository, objectMapper, transactionManager, 1);
+        americano = menuRepository.save(Menu.builder().name("아메리카노").price(4500).available(true).build());
+        latte = menuRepository.save(Menu.builder().name("라떼, 샷 추가").price(5000).available(true).build());
+    }
+
+    private Long saveOrder(String customerName, LocalDateTime orderedAt, Menu... menus) {
+        Order order = Order.builder().customerName(customerName).build();
+        for (Menu menu : menus) {
+            order.addOrderItem(menu, 1);
+        }
+        ReflectionTestUtils.setField(order, "orderedAt", orderedAt);
+        Long id = orderRepository.save(order).getId();
+        entityManager.flush();
+        entityManager.clear();
+        return id;
+    }
+
+    private byte[] export(OrderExportFormat format, LocalDate from, LocalDate to, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.open(format, from, to, gzip).writeTo(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("성공: CSV 는 주문 항목당 한 줄, 쉼표가 있는 값은 따옴표로 감싼다")
+    void export_Csv_OneLinePerItem() throws IOException {
+        // Given
+        Long orderId = saveOrder("홍길동", LocalDateTime.of(2024, 1, 10, 12, 0), americano, latte);
+
+        // When
+        String csv = new String(export(OrderExportFormat.CSV, null, null, false), StandardCharsets.UTF_8);
+
+        // Then
+        List<String> lines = csv.lines().toList();
+        assertThat(lines.get(0)).isEqualTo("\uFEFF" + CsvOrderExportWriter.HEADER);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(1)).startsWith(orderId + ",홍길동,PENDING,2024-01-10T12:00,9500,")
+                .endsWith(",아메리카노,4500,1");
+        assertThat(lines.get(2)).endsWith(",\"라떼, 샷 추가\",5000,1");
+    }
+
+    @Test
+    @DisplayName("성공: NDJSON 은 주문당 한 줄, gzip 으로 압축하고 주문일 범위로 거른다")
+    void export_NdjsonGzip_OneLinePerOrderInRange() throws IOException {
+        // Given
+        saveOrder("지난달", LocalDateTime.of(2023, 12, 31, 23, 59), americano);
+        Long first = saveOrder("홍길동", LocalDateTime.of(2024, 1, 1, 0, 0), americano, latte);
+        Long second = saveOrder("김철수", LocalDateTime.of(2024, 1, 31, 23, 59), latte);
+        saveOrder("다음달", LocalDateTime.of(2024, 2, 1, 0, 0), americano);
+
+        // When
+        byte[] compressed = export(OrderExportFormat.NDJSON, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), true);
+
+        // Then
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<JsonNode> orders = ndjson.lines().map(objectMapper::readTree).toList();
+        assertThat(orders).extracting(order -> order.get("id").asLong()).containsExactly(first, second);
+        assertThat(orders.get(0).get("orderItems").size()).isEqualTo(2);
+        assertThat(orders.get(1).get("orderItems").size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("실패: 동시 내보내기가 최대 개수면 503, 끝난 뒤에는 다시 받는다")
+    void open_TooManyConcurrent_Busy() throws IOException {
+        // Given (최대 1개)
+        OrderExport running = orderExportService.open(OrderExportFormat.CSV, null, null, false);
+
+        // When & Then
+        assertThatThrownBy(() -> orderExportService.open(OrderExportFormat.CSV, null, null, false))
+                .isInstanceOf(OrderExportBusyException.class);
+        running.writeTo(new ByteArrayOutputStream());
+        assertThatCode(() -> orderExportService.open(OrderExportFormat.CSV, null, null, false))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("성공: 본문을 쓰지 않고 끝난 내보내기는 abandon 으로 자리를 한 번만 돌려준다")
+    void abandon_WithoutWrite_FreesSlotOnce() throws IOException {
+        // Given (최대 1개)
+        OrderExport abandoned = orderExportService.open(OrderExportFormat.CSV, null, null, false);
+
+        // When (요청 완료 콜백이 두 번 불려도, 다른 내보내기가 시작된 뒤에 불려도 한 번만 반납)
+        abandoned.abandon();
+        abandoned.abandon();
+        OrderExport next = orderExportService.open(OrderExportFormat.CSV, null, null, false);
+        abandoned.abandon();
+
+        // Then
+        assertThatThrownBy(() -> orderExportService.open(OrderExportFormat.CSV, null, null, false))
+                .isInstanceOf(OrderExportBusyException.class);
+        assertThatThrownBy(() -> abandoned.writeTo(new ByteArrayOutputStream()))
+                .isInstanceOf(IOException.class);
+        next.writeTo(new ByteArrayOutputStream());
+        next.abandon();
+        assertThatCode(() -> orderExportService.open(OrderExportFormat.CSV, null, null, false))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("성공: 쓰는 도중에 요청이 끝나면 (시간 초과) 자리는 본문을 다 쓴 뒤에 반납한다")
+    void abandon_WhileWriting_KeepsSlotUntilWriteEnds() throws IOException {
+        // Given
+        AtomicInteger released = new AtomicInteger();
+        AtomicReference<OrderExport> export = new AtomicReference<>();
+        AtomicInteger releasedDuringWrite = new AtomicInteger(-1);
+        export.set(new OrderExport("text/csv", "orders.csv", out -> {
+            export.get().abandon();
+            releasedDuringWrite.set(released.get());
+        }, released::incrementAndGet));
+
+        // When
+        export.get().writeTo(new ByteArrayOutputStream());
+
+        // Then
+        assertThat(releasedDuringWrite).hasValue(0);
+        assertThat(released).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("실패: from 이 to 보다 늦으면 400")
+    void open_InvalidRange() {
+        assertThatThrownBy(() -> orderExportService.open(OrderExportFormat.CSV,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), false))
+                .isInstanceOf(InvalidOrderQueryException.class);
+    }
+}
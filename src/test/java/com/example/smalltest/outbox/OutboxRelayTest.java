@@ -0,0 +1,176 @@
+package com.example.smalltest.outbox;
+
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.domain.OutboxEvent;
+import com.example.smalltest.dto.OrderEvent;
+import com.example.smalltest.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+//릴레이가 직접 트랜잭션을 열고 커밋하므로 테스트 메서드는 트랜잭션 없이 실행
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("아웃박스 릴레이")
+class OutboxRelayTest {
+
+    @TestConfiguration
+    static class OutboxTestConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return JsonMapper.builder().build();
+        }
+
+        @Bean
+        OrderOutbox orderOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+            return new OrderOutbox(outboxEventRepository, objectMapper);
+        }
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private InMemoryOrderEventSink sink;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sink = new InMemoryOrderEventSink();
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    private void appendEvents(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long orderId = 1; orderId <= count; orderId++) {
+                orderOutbox.append(OrderEvent.created(orderId, OrderStatus.PENDING));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("성공: 배치 단위로 저장 순서대로 전달하고, 전달한 이벤트는 지운다")
+    void relay_DeliversInBatchesAndDeletes() {
+        // Given
+        appendEvents(5);
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, sink, transactionTemplate, 2, 10,
+                new SimpleMeterRegistry());
+
+        // When
+        relay.relay();
+
+        // Then
+        assertThat(sink.events()).extracting(OutboxEvent::getAggregateId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(sink.events()).allSatisfy(event -> {
+            assertThat(event.getEventType()).isEqualTo("CREATED");
+            assertThat(event.getPayload()).contains("\"status\":\"PENDING\"").doesNotContain("\"id\"");
+        });
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("실패: 싱크 전달이 실패하면 이벤트를 지우지 않고 다음 주기에 다시 보낸다")
+    void relay_SinkFailure_KeepsEvents() {
+        // Given
+        appendEvents(3);
+        OutboxRelay failing = new OutboxRelay(outboxEventRepository, events -> {
+            throw new IllegalStateException("브로커 연결 실패");
+        }, transactionTemplate, 10, 10, new SimpleMeterRegistry());
+
+        // When
+        failing.relay();
+
+        // Then
+        assertThat(outboxEventRepository.count()).isEqualTo(3);
+
+        // When (다음 주기)
+        new OutboxRelay(outboxEventRepository, sink, transactionTemplate, 10, 10, new SimpleMeterRegistry()).relay();
+
+        // Then
+        assertThat(sink.events()).hasSize(3);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("성공: 두 트랜잭션이 동시에 가져가면 잠긴 행을 건너뛰어서 서로 겹치지 않는다")
+    void claimBatch_Concurrent_Disjoint() throws Exception {
+        // Given
+        appendEvents(6);
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch secondClaimed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When (첫 트랜잭션이 잠금을 쥔 채로 두 번째 트랜잭션이 가져간다)
+            Future<List<Long>> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                List<Long> ids = claimIds(3);
+                firstClaimed.countDown();
+                await(secondClaimed);
+                return ids;
+            }));
+            Future<List<Long>> second = executor.submit(() -> transactionTemplate.execute(status -> {
+                await(firstClaimed);
+                List<Long> ids = claimIds(3);
+                secondClaimed.countDown();
+                return ids;
+            }));
+
+            // Then
+            List<Long> firstIds = first.get(10, TimeUnit.SECONDS);
+            List<Long> secondIds = second.get(10, TimeUnit.SECONDS);
+            assertThat(firstIds).hasSize(3).doesNotContainAnyElementsOf(secondIds);
+            assertThat(secondIds).hasSize(3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Long> claimIds(int limit) {
+        return outboxEventRepository.claimBatch(Limit.of(limit)).stream().map(OutboxEvent::getId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).as("다른 트랜잭션을 기다리다 시간 초과").isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("실패: 트랜잭션 밖에서는 아웃박스에 저장할 수 없다")
+    void append_WithoutTransaction_ThrowsException() {
+        assertThatThrownBy(() -> orderOutbox.append(OrderEvent.created(1L, OrderStatus.PENDING)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+}
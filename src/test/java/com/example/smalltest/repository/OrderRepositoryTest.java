@@ -0,0 +1,239 @@
+package com.example.smalltest.repository;
+
+import com.example.smalltest.cache.MenuCatalogCache;
+import com.example.smalltest.cache.OrderResponseCache;
+import com.example.smalltest.cache.SharedCacheConfig;
+import com.example.smalltest.domain.Menu;
+import com.example.smalltest.domain.Order;
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.OrderCursor;
+import com.example.smalltest.dto.OrderResponse;
+import com.example.smalltest.dto.OrderSummaryResponse;
+import com.example.smalltest.metrics.OrderMetrics;
+import com.example.smalltest.outbox.OrderOutbox;
+import com.example.smalltest.sales.SalesAggregator;
+import com.example.smalltest.service.AttachmentUploadQueue;
+import com.example.smalltest.service.OrderEventBroadcaster;
+import com.example.smalltest.service.OrderService;
+import com.example.smalltest.storage.ObjectStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderService.class, MenuCatalogCache.class, OrderResponseCache.class, SharedCacheConfig.class,
+        OrderMetrics.class, SimpleMeterRegistry.class})
+@DisplayName("주문 저장소")
+class OrderRepositoryTest {
+
+    //getOrder 에서 쓰지 않는 의존성은 mock, 공유 캐시는 사용 안 함 (기본 none)
+    @MockitoBean
+    private AttachmentUploadQueue attachmentUploadQueue;
+
+    @MockitoBean
+    private ObjectStorage objectStorage;
+
+    @MockitoBean
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private Validator validator;
+
+    @MockitoBean
+    private OrderEventBroadcaster orderEventBroadcaster;
+
+    @MockitoBean
+    private OrderOutbox orderOutbox;
+
+    @MockitoBean
+    private SalesAggregator salesAggregator;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Menu menu;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        menu = menuRepository.save(Menu.builder().name("아메리카노").price(4500).available(true).build());
+
+        //시퀀스 최초 조회가 측정에 섞이지 않도록 주문을 하나 먼저 저장
+        saveOrder(1);
+        statistics.clear();
+    }
+
+    private long saveOrder(int itemCount) {
+        Order order = Order.builder().customerName("홍길동").build();
+        for (int i = 0; i < itemCount; i++) {
+            order.addOrderItem(menu, 1);
+        }
+        long before = statistics.getPrepareStatementCount();
+        orderRepository.save(order);
+        entityManager.flush();
+        entityManager.clear();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    @Test
+    @DisplayName("성공: 주문 항목 수와 상관없이 주문 저장 문장 수가 같다 (IDENTITY 였다면 항목 수 + 1)")
+    void save_StatementCountIndependentOfItems() {
+        // When
+        long singleItem = saveOrder(1);
+        long manyItems = saveOrder(20);
+
+        // Then
+        assertThat(manyItems).isEqualTo(singleItem);
+        //orders INSERT 배치 1 + order_items INSERT 배치 1 (+ 시퀀스 조회)
+        assertThat(manyItems).isLessThanOrEqualTo(4);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + 1 + 1 + 20);
+    }
+
+    //김철수 주문 5건, 두 건씩 같은 주문 시각 (0, 0, +1m, +1m, +2m)
+    private List<Long> saveCustomerOrders() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Order order = Order.builder().customerName("김철수").build();
+            order.addOrderItem(menu, 1);
+            ReflectionTestUtils.setField(order, "orderedAt", base.plusMinutes(i / 2));
+            ids.add(orderRepository.save(order).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    @Test
+    @DisplayName("성공: 키셋 페이지네이션은 (orderedAt, id) 최신순으로 빠짐없이 이어서 읽는다")
+    void findSummaries_KeysetPagination() {
+        // Given
+        List<Long> ids = saveCustomerOrders();
+
+        // When
+        List<Long> read = new ArrayList<>();
+        OrderCursor cursor = OrderCursor.FIRST;
+        List<OrderSummaryResponse> page;
+        do {
+            page = orderRepository.findSummariesByCustomerName("김철수", cursor.orderedAt(), cursor.id(), Limit.of(2));
+            page.forEach(order -> read.add(order.getId()));
+            if (!page.isEmpty()) cursor = OrderCursor.decode(OrderCursor.of(page.get(page.size() - 1)).encode());
+        } while (page.size() == 2);
+
+        // Then
+        assertThat(read).containsExactly(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0));
+    }
+
+    @Test
+    @DisplayName("성공: 페이지의 주문 항목은 IN 쿼리 한 번으로 가져온다")
+    void findAllWithItemsByIdIn_SingleStatement() {
+        // Given
+        List<Long> ids = saveCustomerOrders();
+        statistics.clear();
+
+        // When
+        List<Order> orders = orderRepository.findAllWithItemsByIdIn(ids);
+        orders.forEach(order -> order.getOrderItems().size());
+
+        // Then
+        assertThat(orders).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("성공: 주문 상세 조회는 항목 수와 상관없이 SQL 한 번 (메뉴 프록시를 초기화하지 않음)")
+    void getOrder_SingleStatement() {
+        // Given
+        Order order = Order.builder().customerName("김철수").build();
+        for (int i = 0; i < 5; i++) {
+            order.addOrderItem(menu, 1);
+        }
+        Long orderId = orderRepository.save(order).getId();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // When
+        OrderResponse response = orderService.getOrder(orderId);
+
+        // Then
+        assertThat(response.getOrderItems()).hasSize(5)
+                .allSatisfy(item -> assertThat(item.getMenuId()).isEqualTo(menu.getId()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Menu.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("성공: 조건부 상태 변경은 기대 상태가 맞을 때만 한 건 바꾸고 버전을 올린다")
+    void compareAndSetStatus_OnlyWhenExpectedStatusMatches() {
+        // Given
+        Long orderId = orderRepository.save(Order.builder().customerName("김철수").build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+        Long version = orderRepository.findById(orderId).orElseThrow().getVersion();
+        entityManager.clear();
+
+        // When
+        int first = orderRepository.compareAndSetStatus(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        //같은 상태를 읽었던 두 번째 요청은 이미 바뀐 뒤라 0건
+        int second = orderRepository.compareAndSetStatus(orderId, OrderStatus.PENDING, OrderStatus.CANCELLED);
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        Order updated = orderRepository.findById(orderId).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(updated.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    @DisplayName("성공: 일괄 조건부 상태 변경은 기대 상태인 주문만 한 문장으로 바꾼다")
+    void compareAndSetStatuses_OnlyOrdersInExpectedStatus() {
+        // Given
+        List<Long> ids = saveCustomerOrders();
+        orderRepository.compareAndSetStatus(ids.get(0), OrderStatus.PENDING, OrderStatus.CANCELLED);
+        statistics.clear();
+
+        // When
+        int updated = orderRepository.compareAndSetStatuses(ids, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+
+        // Then
+        assertThat(updated).isEqualTo(ids.size() - 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(orderRepository.findStatusesByIdIn(ids))
+                .allSatisfy(view -> assertThat(view.status())
+                        .isEqualTo(view.id().equals(ids.get(0)) ? OrderStatus.CANCELLED : OrderStatus.CONFIRMED));
+    }
+}
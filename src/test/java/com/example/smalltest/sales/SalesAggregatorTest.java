@@ -0,0 +1,123 @@
+package com.example.smalltest.sales;
+
+import com.example.smalltest.domain.Menu;
+import com.example.smalltest.domain.Order;
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.SalesRebuildResponse;
+import com.example.smalltest.repository.DailyMenuSalesRepository;
+import com.example.smalltest.repository.DailySalesRepository;
+import com.example.smalltest.repository.MenuRepository;
+import com.example.smalltest.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("매출 집계")
+class SalesAggregatorTest {
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private DailyMenuSalesRepository dailyMenuSalesRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SalesRollup salesRollup;
+    private SalesAggregator salesAggregator;
+    private Menu americano;
+
+    @BeforeEach
+    void setUp() {
+        salesRollup = new SalesRollup(dailySalesRepository, dailyMenuSalesRepository, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1));
+        salesAggregator = new SalesAggregator(dailySalesRepository, dailyMenuSalesRepository, orderRepository,
+                salesRollup, entityManager, new TransactionTemplate(transactionManager));
+        americano = menuRepository.save(Menu.builder().name("아메리카노").price(4500).available(true).build());
+    }
+
+    private Order order(int quantity, OrderStatus... path) {
+        Order order = Order.builder().customerName("홍길동").build();
+        order.addOrderItem(americano, quantity);
+        for (OrderStatus status : path) {
+            order.updateStatus(status);
+        }
+        return order;
+    }
+
+    @Test
+    @DisplayName("성공: 같은 날짜의 완료는 처음이면 행을 만들고 이후에는 UPDATE 로 누적")
+    void apply_SameDate_Accumulates() {
+        // Given
+        Order first = orderRepository.saveAndFlush(order(2));
+        Order second = orderRepository.saveAndFlush(order(1));
+        LocalDate today = first.getOrderedAt().toLocalDate();
+
+        // When
+        SalesDelta delta = new SalesDelta();
+        delta.addTransition(first, OrderStatus.PREPARING, OrderStatus.COMPLETED);
+        salesAggregator.apply(delta);
+        salesAggregator.recordTransition(second, OrderStatus.PREPARING, OrderStatus.COMPLETED);
+        salesAggregator.recordTransition(second, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+
+        // Then
+        DaySales day = salesRollup.days(today, today).get(0);
+        assertThat(day.completedOrders()).isEqualTo(2);
+        assertThat(day.quantity()).isEqualTo(3);
+        assertThat(day.revenue()).isEqualTo(3 * 4500);
+        assertThat(day.menus()).singleElement()
+                .satisfies(menu -> {
+                    assertThat(menu.menuId()).isEqualTo(americano.getId());
+                    assertThat(menu.quantity()).isEqualTo(3);
+                });
+    }
+
+    @Test
+    @DisplayName("성공: 재집계는 완료/취소된 주문으로 집계 테이블을 다시 만든다")
+    void rebuild_RecomputesFromOrders() {
+        // Given (집계와 어긋난 행이 이미 있어도 주문 기준으로 바뀐다)
+        Order completed = orderRepository.save(order(2, OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.COMPLETED));
+        orderRepository.save(order(5, OrderStatus.CANCELLED));
+        orderRepository.save(order(7));
+        LocalDate today = completed.getOrderedAt().toLocalDate();
+        SalesDelta stale = new SalesDelta();
+        stale.addTransition(order(9), OrderStatus.PREPARING, OrderStatus.COMPLETED);
+        salesAggregator.apply(stale);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        SalesRebuildResponse response = salesAggregator.rebuild();
+
+        // Then
+        assertThat(response.getOrders()).isEqualTo(2);
+        assertThat(response.getDays()).isEqualTo(1);
+        DaySales day = salesRollup.days(today, today).get(0);
+        assertThat(day.completedOrders()).isEqualTo(1);
+        assertThat(day.cancelledOrders()).isEqualTo(1);
+        assertThat(day.quantity()).isEqualTo(2);
+        assertThat(day.revenue()).isEqualTo(2 * 4500);
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.smalltest.service;
+
+import com.example.smalltest.domain.AttachmentStatus;
+import com.example.smalltest.domain.Order;
+import com.example.smalltest.exception.AttachmentQueueFullException;
+import com.example.smalltest.repository.OrderRepository;
+import com.example.smalltest.service.AttachmentUploadQueue.PendingAttachment;
+import com.example.smalltest.storage.InMemoryObjectStorage;
+import com.example.smalltest.storage.ObjectStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("첨부 파일 업로드 대기열")
+class AttachmentUploadQueueTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private AttachmentUploadQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) queue.shutdown();
+    }
+
+    private AttachmentUploadQueue createQueue(ObjectStorage storage, int capacity) throws IOException {
+        queue = new AttachmentUploadQueue(storage, orderRepository, 1, capacity, 3,
+                Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(10), Duration.ofHours(1),
+                spoolDirectory.toString());
+        return queue;
+    }
+
+    private MockMultipartFile file() {
+        return new MockMultipartFile("file", "receipt.png", "image/png", new byte[]{1, 2, 3});
+    }
+
+    @Test
+    @DisplayName("성공: 업로드가 끝나면 UPLOADED 로 바꾸고 스풀 파일을 지운다")
+    void upload_Success() throws IOException {
+        // Given
+        InMemoryObjectStorage storage = new InMemoryObjectStorage();
+        createQueue(storage, 10);
+        PendingAttachment pending = queue.prepare(file());
+
+        // When
+        queue.submit(1L, pending);
+
+        // Then
+        verify(orderRepository, timeout(2000)).updateAttachmentStatus(1L, AttachmentStatus.UPLOADED);
+        assertThat(storage.get(pending.key()).content()).containsExactly(1, 2, 3);
+        assertThat(pending.spooledFile()).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("성공: 일시적인 실패는 재시도한다")
+    void upload_RetriesTransientFailure() throws IOException {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        InMemoryObjectStorage storage = new InMemoryObjectStorage() {
+            @Override
+            public void put(String key, Path source, String contentType) throws IOException {
+                if (calls.incrementAndGet() < 3) throw new IOException("S3 timeout");
+                super.put(key, source, contentType);
+            }
+        };
+        createQueue(storage, 10);
+        PendingAttachment pending = queue.prepare(file());
+
+        // When
+        queue.submit(1L, pending);
+
+        // Then
+        verify(orderRepository, timeout(2000)).updateAttachmentStatus(1L, AttachmentStatus.UPLOADED);
+        assertThat(calls).hasValue(3);
+        assertThat(storage.exists(pending.key())).isTrue();
+    }
+
+    @Test
+    @DisplayName("성공: 비동기 엔진은 future 가 완료된 뒤에 UPLOADED 로 바꾼다")
+    void upload_AsyncEngine_CompletesOnFuture() throws IOException {
+        // Given
+        CompletableFuture<Void> transfer = new CompletableFuture<>();
+        InMemoryObjectStorage storage = new InMemoryObjectStorage() {
+            @Override
+            public CompletableFuture<Void> putAsync(String key, Path source, String contentType) {
+                return transfer;
+            }
+        };
+        createQueue(storage, 10);
+        PendingAttachment pending = queue.prepare(file());
+
+        // When
+        queue.submit(1L, pending);
+
+        // Then
+        verify(orderRepository, after(200).never()).updateAttachmentStatus(anyLong(), any());
+        assertThat(queue.inFlight()).isEqualTo(1);
+
+        transfer.complete(null);
+        verify(orderRepository, timeout(2000)).updateAttachmentStatus(1L, AttachmentStatus.UPLOADED);
+        assertThat(pending.spooledFile()).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("실패: 최대 시도 횟수를 넘기면 FAILED 로 바꾼다")
+    void upload_FailsAfterMaxAttempts() throws IOException {
+        // Given
+        createQueue(new InMemoryObjectStorage() {
+            @Override
+            public void put(String key, Path source, String contentType) throws IOException {
+                throw new IOException("S3 down");
+            }
+        }, 10);
+        PendingAttachment pending = queue.prepare(file());
+
+        // When
+        queue.submit(1L, pending);
+
+        // Then
+        verify(orderRepository, timeout(2000)).updateAttachmentStatus(1L, AttachmentStatus.FAILED);
+        verify(orderRepository, never()).updateAttachmentStatus(1L, AttachmentStatus.UPLOADED);
+        assertThat(pending.spooledFile()).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("실패: 대기열이 가득 차면 거절하고, 자리가 반환되면 다시 받는다")
+    void prepare_WhenFull_Rejects() throws IOException {
+        // Given
+        createQueue(new InMemoryObjectStorage(), 1);
+        PendingAttachment pending = queue.prepare(file());
+
+        // When & Then
+        assertThatThrownBy(() -> queue.prepare(file()))
+                .isInstanceOf(AttachmentQueueFullException.class);
+
+        queue.discard(pending);
+        assertThat(Files.exists(pending.spooledFile())).isFalse();
+        assertThat(queue.prepare(file())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("실패: 종료된 뒤에 시작하는 업로드는 스풀 파일을 남겨 두고 자리만 반환한다")
+    void submit_AfterShutdown_KeepsSpoolFileAndReleasesSlot() throws Exception {
+        // Given
+        createQueue(new InMemoryObjectStorage(), 1);
+        PendingAttachment pending = queue.prepare(file());
+        queue.shutdown();
+
+        // When
+        queue.submit(1L, pending);
+
+        // Then
+        assertThat(spoolDirectory.resolve("order-1.spool")).exists();
+        assertThat(queue.prepare(file())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("성공: 종료 중에 실패한 업로드는 스풀 파일을 남기고, 재시작하면 다시 올린다")
+    void upload_FailsDuringShutdown_RecoveredOnRestart() throws Exception {
+        // Given (전송 중에 종료)
+        CompletableFuture<Void> transfer = new CompletableFuture<>();
+        createQueue(new InMemoryObjectStorage() {
+            @Override
+            public CompletableFuture<Void> putAsync(String key, Path source, String contentType) {
+                return transfer;
+            }
+        }, 10);
+        PendingAttachment pending = queue.prepare(file());
+        queue.submit(1L, pending);
+        await(() -> queue.inFlight() == 1);
+        queue.shutdown();
+
+        // When
+        transfer.completeExceptionally(new IOException("connection reset"));
+
+        // Then (재시도할 수 없으니 파일을 남겨 둔다)
+        Path spoolFile = spoolDirectory.resolve("order-1.spool");
+        assertThat(spoolFile).exists();
+        verify(orderRepository, never()).updateAttachmentStatus(anyLong(), any());
+
+        // When (재시작)
+        Files.setLastModifiedTime(spoolFile, FileTime.from(Instant.now().minusSeconds(60)));
+        Order order = Order.builder().customerName("홍길동").build();
+        order.attach(pending.key());
+        ReflectionTestUtils.setField(order, "id", 1L);
+        when(orderRepository.findAllByIdInAndAttachmentStatus(any(), eq(AttachmentStatus.PENDING_UPLOAD)))
+                .thenReturn(List.of(order));
+        InMemoryObjectStorage storage = new InMemoryObjectStorage();
+        createQueue(storage, 10);
+        queue.recover();
+
+        // Then
+        verify(orderRepository, timeout(2000)).updateAttachmentStatus(1L, AttachmentStatus.UPLOADED);
+        assertThat(storage.get(pending.key()).content()).containsExactly(1, 2, 3);
+        assertThat(spoolFile).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("성공: 종료 중에 끝난 업로드는 바로 UPLOADED 로 바꾼다")
+    void upload_CompletesDuringShutdown_MarksUploaded() throws Exception {
+        // Given (전송 중에 종료)
+        CompletableFuture<Void> transfer = new CompletableFuture<>();
+        createQueue(new InMemoryObjectStorage() {
+            @Override
+            public CompletableFuture<Void> putAsync(String key, Path source, String contentType) {
+                return transfer;
+            }
+        }, 10);
+        PendingAttachment pending = queue.prepare(file());
+        queue.submit(1L, pending);
+        await(() -> queue.inFlight() == 1);
+        queue.shutdown();
+
+        // When
+        transfer.complete(null);
+
+        // Then
+        verify(orderRepository).updateAttachmentStatus(1L, AttachmentStatus.UPLOADED);
+        assertThat(spoolDirectory.resolve("order-1.spool")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("성공: 재시작하면 남은 스풀 파일로 업로드를 이어서 하고, 남은 파일과 멈춘 주문을 정리한다")
+    void recover_ResubmitsLeftoverAndCleansUp() throws IOException {
+        // Given (이전 실행에서 남은 파일: 업로드 대기 주문 7, 이미 끝난 주문 8, 요청 도중 남은 임시 파일)
+        Path pendingFile = leftover("order-7.spool");
+        Path finishedFile = leftover("order-8.spool");
+        Path requestFile = leftover("upload-123.tmp");
+        Order order = Order.builder().customerName("홍길동").build();
+        order.attach("abc_receipt.png");
+        ReflectionTestUtils.setField(order, "id", 7L);
+        when(orderRepository.findAllByIdInAndAttachmentStatus(any(), eq(AttachmentStatus.PENDING_UPLOAD)))
+                .thenReturn(List.of(order));
+        //9 는 스풀 파일 없이 오래 멈춘 주문
+        when(orderRepository.findIdsByAttachmentStatusOrderedBefore(eq(AttachmentStatus.PENDING_UPLOAD), any()))
+                .thenReturn(List.of(7L, 9L));
+        InMemoryObjectStorage storage = new InMemoryObjectStorage();
+        createQueue(storage, 10);
+
+        // When
+        queue.recover();
+
+        // Then
+        verify(orderRepository, timeout(2000)).updateAttachmentStatus(7L, AttachmentStatus.UPLOADED);
+        verify(orderRepository).updateAttachmentStatus(9L, AttachmentStatus.FAILED);
+        verify(orderRepository, never()).updateAttachmentStatus(7L, AttachmentStatus.FAILED);
+        assertThat(storage.get("abc_receipt.png").content()).containsExactly(1, 2, 3);
+        assertThat(pendingFile).doesNotExist();
+        assertThat(finishedFile).doesNotExist();
+        assertThat(requestFile).doesNotExist();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("시간 안에 조건을 만족하지 않음");
+            Thread.sleep(10);
+        }
+    }
+
+    private Path leftover(String name) throws IOException {
+        Path file = Files.write(spoolDirectory.resolve(name), new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(3600)));
+        return file;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.smalltest.service;
+
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.OrderEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("주문 이벤트 실시간 전송")
+class OrderEventBroadcasterTest {
+
+    private OrderEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) broadcaster.shutdown();
+    }
+
+    private OrderEventBroadcaster broadcaster(int bufferSize, int replaySize) {
+        broadcaster = new OrderEventBroadcaster(bufferSize, replaySize, 1, Duration.ofHours(1), Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        return broadcaster;
+    }
+
+    /**
+     * 보낸 이벤트를 "이벤트이름:주문id" 로 기록하는 emitter (resync 는 "resync")
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String name = null;
+            Long orderId = null;
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof OrderEvent event) orderId = event.getOrderId();
+                else if (data.getData() instanceof String line && line.contains("event:")) {
+                    name = line.substring(line.indexOf("event:") + 6).lines().findFirst().orElse("");
+                }
+            }
+            if (name != null) received.add(orderId == null ? name : name + ":" + orderId);
+        }
+
+        String next() throws InterruptedException {
+            String event = received.poll(2, TimeUnit.SECONDS);
+            assertThat(event).as("이벤트를 받지 못함").isNotNull();
+            return event;
+        }
+    }
+
+    @Test
+    @DisplayName("성공: 구독한 상태로 들어오거나 나가는 변경만 받는다")
+    void subscribe_FiltersByStatus() throws InterruptedException {
+        // Given
+        OrderEventBroadcaster broadcaster = broadcaster(16, 16);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, List.of(OrderStatus.PREPARING), null);
+
+        // When
+        broadcaster.publish(OrderEvent.created(1L, OrderStatus.PENDING));
+        broadcaster.publish(OrderEvent.statusChanged(2L, OrderStatus.CONFIRMED, OrderStatus.PREPARING));
+        broadcaster.publish(OrderEvent.statusChanged(3L, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+        broadcaster.publish(OrderEvent.statusChanged(2L, OrderStatus.PREPARING, OrderStatus.COMPLETED));
+
+        // Then
+        assertThat(emitter.next()).isEqualTo("order-status-changed:2");
+        assertThat(emitter.next()).isEqualTo("order-status-changed:2");
+        assertThat(emitter.received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("성공: Last-Event-ID 이후의 이벤트부터 이어서 받는다")
+    void subscribe_ResumesFromLastEventId() throws InterruptedException {
+        // Given
+        OrderEventBroadcaster broadcaster = broadcaster(16, 16);
+        broadcaster.publish(OrderEvent.created(1L, OrderStatus.PENDING));
+        broadcaster.publish(OrderEvent.created(2L, OrderStatus.PENDING));
+        broadcaster.publish(OrderEvent.created(3L, OrderStatus.PENDING));
+
+        // When
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, List.of(), broadcaster.eventId(1));
+        broadcaster.publish(OrderEvent.created(4L, OrderStatus.PENDING));
+
+        // Then
+        assertThat(emitter.next()).isEqualTo("order-created:2");
+        assertThat(emitter.next()).isEqualTo("order-created:3");
+        assertThat(emitter.next()).isEqualTo("order-created:4");
+    }
+
+    @Test
+    @DisplayName("성공: 보관 범위를 벗어난 Last-Event-ID 면 resync 를 보낸다")
+    void subscribe_LastEventIdTooOld_Resync() throws InterruptedException {
+        // Given
+        OrderEventBroadcaster broadcaster = broadcaster(16, 2);
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            broadcaster.publish(OrderEvent.created(orderId, OrderStatus.PENDING));
+        }
+
+        // When
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, List.of(), broadcaster.eventId(1));
+
+        // Then
+        assertThat(emitter.next()).isEqualTo(OrderEventBroadcaster.RESYNC_EVENT);
+        assertThat(emitter.received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("성공: 재시작 전에 받은 Last-Event-ID 면 번호가 범위 안이어도 resync 를 보낸다")
+    void subscribe_LastEventIdFromPreviousBoot_Resync() throws InterruptedException {
+        // Given (재시작 전 broadcaster 의 id)
+        OrderEventBroadcaster previousBoot = broadcaster(16, 16);
+        String previousBootId = previousBoot.eventId(1);
+        previousBoot.shutdown();
+        OrderEventBroadcaster broadcaster = broadcaster(16, 16);
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            broadcaster.publish(OrderEvent.created(orderId, OrderStatus.PENDING));
+        }
+
+        // When
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, List.of(), previousBootId);
+
+        // Then
+        assertThat(emitter.next()).isEqualTo(OrderEventBroadcaster.RESYNC_EVENT);
+        assertThat(emitter.received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("성공: 느린 화면의 버퍼가 넘치면 밀린 이벤트를 버리고 resync 후 이어서 보낸다")
+    void publish_SlowSubscriber_DropsAndResyncs() throws InterruptedException {
+        // Given (첫 이벤트 전송이 끝나지 않는 화면)
+        OrderEventBroadcaster broadcaster = broadcaster(2, 16);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(builder);
+            }
+        };
+        broadcaster.subscribe(emitter, List.of(), null);
+        broadcaster.publish(OrderEvent.created(1L, OrderStatus.PENDING));
+        assertThat(sending.await(2, TimeUnit.SECONDS)).isTrue();
+
+        // When (버퍼 2개를 넘겨서 발행)
+        for (long orderId = 2; orderId <= 4; orderId++) {
+            broadcaster.publish(OrderEvent.created(orderId, OrderStatus.PENDING));
+        }
+        release.countDown();
+        broadcaster.publish(OrderEvent.created(5L, OrderStatus.PENDING));
+
+        // Then
+        assertThat(emitter.next()).isEqualTo("order-created:1");
+        assertThat(emitter.next()).isEqualTo(OrderEventBroadcaster.RESYNC_EVENT);
+        assertThat(emitter.next()).isEqualTo("order-created:5");
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.smalltest.service;
+
+import com.example.smalltest.cache.OrderResponseCodec;
+import com.example.smalltest.domain.IdempotencyRecord;
+import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.OrderCreateRequest;
+import com.example.smalltest.dto.OrderItemRequest;
+import com.example.smalltest.dto.OrderResponse;
+import com.example.smalltest.exception.IdempotencyKeyConflictException;
+import com.example.smalltest.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotency-Key 주문 생성")
+class OrderIdempotencyServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderIdempotencyService orderIdempotencyService;
+    private OrderCreateRequest request;
+    private OrderResponse response;
+
+    @BeforeEach
+    void setUp() {
+        orderIdempotencyService = new OrderIdempotencyService(orderService, idempotencyRecordRepository,
+                new TransactionTemplate(transactionManager), Duration.ofHours(24), Duration.ofSeconds(2));
+        request = new OrderCreateRequest("홍길동", List.of(new OrderItemRequest(1L, 2)));
+        response = OrderResponse.builder()
+                .id(10L)
+                .customerName("홍길동")
+                .status(OrderStatus.PENDING)
+                .orderItems(List.of())
+                .totalPrice(9000)
+                .orderedAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+
+    private IdempotencyRecord record(String key, OrderCreateRequest storedRequest) {
+        return IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(OrderIdempotencyService.requestHash(storedRequest, null))
+                .orderId(response.getId())
+                .response(OrderResponseCodec.encode(response))
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("성공: 처음 받은 키는 주문을 만들고 응답을 주문과 같은 트랜잭션에 저장")
+    void createOrder_NewKey_CreatesAndStores() {
+        // Given
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(orderService.createOrder(request, null)).thenReturn(response);
+
+        // When
+        OrderIdempotencyService.Result result = orderIdempotencyService.createOrder("key-1", request, null);
+
+        // Then
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.response().getId()).isEqualTo(10L);
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getKey()).isEqualTo("key-1");
+        assertThat(saved.getValue().getOrderId()).isEqualTo(10L);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("성공: 같은 키로 다시 보내면 주문을 만들지 않고 저장된 응답")
+    void createOrder_StoredKey_Replays() {
+        // Given
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(record("key-1", request)));
+
+        // When
+        OrderIdempotencyService.Result result = orderIdempotencyService.createOrder("key-1", request, null);
+
+        // Then
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response().getId()).isEqualTo(10L);
+        assertThat(result.response().getTotalPrice()).isEqualTo(9000);
+        verify(orderService, never()).createOrder(any(), any());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("실패: 같은 키로 다른 주문을 보내면 409")
+    void createOrder_SameKeyDifferentRequest_Conflict() {
+        // Given
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(record("key-1", request)));
+        OrderCreateRequest other = new OrderCreateRequest("홍길동", List.of(new OrderItemRequest(1L, 3)));
+
+        // When & Then
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder("key-1", other, null))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        verify(orderService, never()).createOrder(any(), any());
+    }
+
+    @Test
+    @DisplayName("성공: 처리 중인 같은 키는 첫 요청을 기다렸다가 같은 응답 (주문은 한 번만 생성)")
+    void createOrder_InFlightDuplicate_WaitsForFirst() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(orderService.createOrder(request, null)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return response;
+        });
+
+        // When
+        CompletableFuture<OrderIdempotencyService.Result> first =
+                CompletableFuture.supplyAsync(() -> orderIdempotencyService.createOrder("key-1", request, null));
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<OrderIdempotencyService.Result> second =
+                CompletableFuture.supplyAsync(() -> orderIdempotencyService.createOrder("key-1", request, null));
+        //두 번째 요청이 대기 중인 첫 요청을 찾을 때까지
+        Thread.sleep(200);
+        release.countDown();
+
+        // Then
+        assertThat(first.get(2, TimeUnit.SECONDS).replayed()).isFalse();
+        assertThat(second.get(2, TimeUnit.SECONDS).replayed()).isTrue();
+        assertThat(second.get().response().getId()).isEqualTo(10L);
+        verify(orderService, times(1)).createOrder(request, null);
+    }
+
+    @Test
+    @DisplayName("성공: 다른 인스턴스가 같은 키를 먼저 저장했으면 롤백하고 그쪽 응답")
+    void createOrder_LostRace_ReturnsWinner() {
+        // Given
+        when(idempotencyRecordRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(record("key-1", request)));
+        when(orderService.createOrder(request, null)).thenReturn(response);
+        when(idempotencyRecordRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When
+        OrderIdempotencyService.Result result = orderIdempotencyService.createOrder("key-1", request, null);
+
+        // Then
+        assertThat(result.replayed()).isTrue();
+        verify(transactionManager).rollback(any());
+    }
+}
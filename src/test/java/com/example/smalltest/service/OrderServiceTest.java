@@ -1,30 +1,61 @@
 package com.example.smalltest.service;
 
+import com.example.smalltest.cache.InMemorySharedCache;
+import com.example.smalltest.cache.MenuCatalogCache;
+import com.example.smalltest.cache.NoOpSharedCache;
+import com.example.smalltest.cache.OrderResponseCache;
+import com.example.smalltest.domain.AttachmentStatus;
 import com.example.smalltest.domain.Menu;
 import com.example.smalltest.domain.Order;
 import com.example.smalltest.domain.OrderStatus;
+import com.example.smalltest.dto.BulkOrderResponse;
+import com.example.smalltest.dto.BulkOrderResult;
+import com.example.smalltest.dto.BulkStatusUpdateResponse;
+import com.example.smalltest.dto.BulkStatusUpdateResult;
 import com.example.smalltest.dto.OrderCreateRequest;
+import com.example.smalltest.dto.OrderEvent;
 import com.example.smalltest.dto.OrderItemRequest;
 import com.example.smalltest.dto.OrderResponse;
+import com.example.smalltest.dto.OrderStatusView;
+import com.example.smalltest.exception.AttachmentQueueFullException;
+import com.example.smalltest.exception.OrderStatusConflictException;
+import com.example.smalltest.metrics.OrderMetrics;
+import com.example.smalltest.outbox.OrderOutbox;
 import com.example.smalltest.repository.MenuRepository;
 import com.example.smalltest.repository.OrderRepository;
+import com.example.smalltest.sales.SalesAggregator;
+import com.example.smalltest.service.AttachmentUploadQueue.PendingAttachment;
+import com.example.smalltest.storage.ObjectStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
-import org.mockito.internal.matchers.Any;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.awaitility.Awaitility.given;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,12 +70,41 @@ public class OrderServiceTest {
     @Mock
     private MenuRepository menuRepository;
 
-    @InjectMocks
+    @Mock
+    private AttachmentUploadQueue attachmentUploadQueue;
+
+    @Mock
+    private ObjectStorage objectStorage;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderEventBroadcaster orderEventBroadcaster;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
+    @Mock
+    private SalesAggregator salesAggregator;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderResponseCache orderResponseCache;
     private OrderService orderService;
 
     @BeforeEach
     void setUp() {
 
+        MenuCatalogCache menuCatalogCache = new MenuCatalogCache(menuRepository, new NoOpSharedCache(),
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofHours(1));
+        orderResponseCache = new OrderResponseCache(new InMemorySharedCache(), Duration.ofSeconds(30));
+        orderService = new OrderService(orderRepository, menuCatalogCache, orderResponseCache, attachmentUploadQueue,
+                objectStorage, new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator(), orderEventBroadcaster,
+                orderOutbox, new OrderMetrics(meterRegistry), salesAggregator);
+        ReflectionTestUtils.setField(orderService, "bulkChunkSize", 2);
+
         americano = Menu.builder()
                 .name("americano")
                 .price(1000)
@@ -55,7 +115,24 @@ public class OrderServiceTest {
                 .price(4500)
                 .available(true)
                 .build();
+        ReflectionTestUtils.setField(americano, "id", 1L);
+        ReflectionTestUtils.setField(latte, "id", 2L);
+
+    }
+
+    //id 와 현재 상태만 정한 주문 (잠금 조회 결과용)
+    private Order orderWithStatus(Long id, OrderStatus status) {
+        Order order = Order.builder()
+                .customerName("홍길동")
+                .build();
+        order.addOrderItem(americano, 2);
+        ReflectionTestUtils.setField(order, "id", id);
+        ReflectionTestUtils.setField(order, "status", status);
+        return order;
+    }
 
+    private MockMultipartFile attachment() {
+        return new MockMultipartFile("file", "receipt.png", "image/png", new byte[]{1, 2, 3});
     }
     @Nested
     @DisplayName("주문 생성")
@@ -65,8 +142,8 @@ public class OrderServiceTest {
         @DisplayName("성공: 단일 메뉴를 주문할 수 있다")
         void createOrder_WithSingleMunu_Success(){
          //given
-            when(menuRepository.findById(1L))
-                    .thenReturn(Optional.of(americano));
+            when(menuRepository.findAllById(Set.of(1L)))
+                    .thenReturn(List.of(americano));
 
             //orderRepository가 주문을 save하면 save한 내용 그대로 반환하는 설정
             when(orderRepository.save(any(Order.class)))
@@ -90,7 +167,7 @@ public class OrderServiceTest {
             assertThat(response.getTotalPrice()).isEqualTo(3000);
             assertThat(response.getStatus()).isEqualTo(OrderStatus.PENDING);
 
-            verify(menuRepository,times(1)).findById(1L);
+            verify(menuRepository,times(1)).findAllById(Set.of(1L));
             verify(orderRepository,times(1)).save(any(Order.class));
 
 
@@ -101,11 +178,8 @@ public class OrderServiceTest {
         void createOrder_WithMultiMunu_Success(){
 
             //given
-            when(menuRepository.findById(1L))
-                    .thenReturn(Optional.of(americano));
-
-            when(menuRepository.findById(2L))
-            .thenReturn(Optional.of(latte));
+            when(menuRepository.findAllById(Set.of(1L, 2L)))
+                    .thenReturn(List.of(americano, latte));
 
             //orderRepository가 주문을 save하면 save한 내용 그대로 반환하는 설정
             when(orderRepository.save(any(Order.class)))
@@ -126,17 +200,109 @@ public class OrderServiceTest {
             assertThat(response.getTotalPrice()).isEqualTo(12000);
             assertThat(response.getStatus()).isEqualTo(OrderStatus.PENDING);
 
-            verify(menuRepository,times(1)).findById(1L);
+            verify(menuRepository,times(1)).findAllById(Set.of(1L, 2L));
             verify(orderRepository,times(1)).save(any(Order.class));
         }
 
+        @Test
+        @DisplayName("성공: 같은 메뉴가 여러 번 나와도 메뉴는 한 번만 조회한다")
+        void createOrder_WithDuplicateMenu_QueriesOnce(){
+
+            //given
+            when(menuRepository.findAllById(Set.of(1L)))
+                    .thenReturn(List.of(americano));
+            when(orderRepository.save(any(Order.class)))
+                    .thenAnswer(invocation ->invocation.getArgument(0));
+
+            OrderCreateRequest orderCreateRequest = new OrderCreateRequest("김춘식", List.of(
+                    new OrderItemRequest(1L, 1), new OrderItemRequest(1L, 2)));
+
+            //when
+            OrderResponse response = orderService.createOrder(orderCreateRequest);
+
+            //then
+            assertThat(response.getOrderItems()).hasSize(2);
+            assertThat(response.getTotalPrice()).isEqualTo(3000);
+            verify(menuRepository,times(1)).findAllById(Set.of(1L));
+            verify(menuRepository,never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("성공: 이미 조회한 메뉴는 캐시에서 읽는다")
+        void createOrder_WithCachedMenu_SkipsRepository(){
+
+            //given
+            when(menuRepository.findAllById(Set.of(1L)))
+                    .thenReturn(List.of(americano));
+            when(menuRepository.findAllById(Set.of(2L)))
+                    .thenReturn(List.of(latte));
+            when(orderRepository.save(any(Order.class)))
+                    .thenAnswer(invocation ->invocation.getArgument(0));
+
+            //when
+            orderService.createOrder(new OrderCreateRequest("김춘식",
+                    List.of(new OrderItemRequest(1L, 1))));
+            OrderResponse response = orderService.createOrder(new OrderCreateRequest("김춘식",
+                    List.of(new OrderItemRequest(1L, 1), new OrderItemRequest(2L, 1))));
+
+            //then
+            assertThat(response.getTotalPrice()).isEqualTo(5500);
+            verify(menuRepository,times(1)).findAllById(Set.of(1L));
+            verify(menuRepository,times(1)).findAllById(Set.of(2L));
+        }
+
+        @Test
+        @DisplayName("성공: 첨부 파일은 주문 저장 후 업로드 대기열에 넘긴다")
+        void createOrder_WithAttachment_SubmitsAfterSave(){
+
+            //given
+            MockMultipartFile file = attachment();
+            PendingAttachment pending = new PendingAttachment("key_receipt.png", Path.of("spooled"), "image/png");
+            when(menuRepository.findAllById(Set.of(1L)))
+                    .thenReturn(List.of(americano));
+            when(attachmentUploadQueue.prepare(file)).thenReturn(pending);
+            when(orderRepository.save(any(Order.class)))
+                    .thenAnswer(invocation -> {
+                        Order order = invocation.getArgument(0);
+                        ReflectionTestUtils.setField(order, "id", 10L);
+                        return order;
+                    });
+
+            //when
+            orderService.createOrder(new OrderCreateRequest("김춘식", List.of(new OrderItemRequest(1L, 1))), file);
+
+            //then
+            InOrder inOrder = inOrder(orderRepository, attachmentUploadQueue);
+            inOrder.verify(orderRepository).save(argThat(order ->
+                    order.getAttachmentKey().equals("key_receipt.png")
+                            && order.getAttachmentStatus() == AttachmentStatus.PENDING_UPLOAD));
+            inOrder.verify(attachmentUploadQueue).submit(10L, pending);
+        }
+
+        @Test
+        @DisplayName("실패: 업로드 대기열이 가득 차면 주문을 저장하지 않는다")
+        void createOrder_WhenQueueFull_ThrowsException(){
+
+            //given
+            MockMultipartFile file = attachment();
+            when(menuRepository.findAllById(Set.of(1L)))
+                    .thenReturn(List.of(americano));
+            when(attachmentUploadQueue.prepare(file)).thenThrow(new AttachmentQueueFullException());
+
+            //when & then
+            assertThatThrownBy(() -> orderService.createOrder(
+                    new OrderCreateRequest("김춘식", List.of(new OrderItemRequest(1L, 1))), file))
+                    .isInstanceOf(AttachmentQueueFullException.class);
+            verify(orderRepository,never()).save(any(Order.class));
+        }
+
         @Test
         @DisplayName("실패 : 존재하지 않는 메뉴라면 주문이 실패해야 한다")
         void createOrder_WithNonExistMenu_ThrowsException(){
 
             //given
-            when(menuRepository.findById(999L))
-                    .thenReturn(Optional.empty());
+            when(menuRepository.findAllById(Set.of(999L)))
+                    .thenReturn(List.of());
 
             //주문 요청 DTO 생성
             OrderItemRequest orderItemRequest = new OrderItemRequest(999L, 3);
@@ -156,6 +322,120 @@ public class OrderServiceTest {
 
 
     }
+    @Nested
+    @DisplayName("주문 일괄 생성")
+    class CreateOrders {
+
+        private long nextId = 100;
+
+        //saveAll 은 저장한 주문에 id 를 붙여서 그대로 반환
+        private void stubSaveAll() {
+            when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Order> orders = invocation.getArgument(0);
+                orders.forEach(order -> ReflectionTestUtils.setField(order, "id", nextId++));
+                return orders;
+            });
+        }
+
+        private OrderCreateRequest request(String customerName, long menuId) {
+            return new OrderCreateRequest(customerName, List.of(new OrderItemRequest(menuId, 1)));
+        }
+
+        @Test
+        @DisplayName("성공: 청크 크기만큼 묶어서 저장하고 메뉴는 청크마다 한 번에 조회한다")
+        void createOrders_SavesInChunks() {
+            // Given
+            when(menuRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(americano, latte));
+            stubSaveAll();
+
+            // When
+            BulkOrderResponse response = orderService.createOrders(List.of(
+                    request("a", 1L), request("b", 2L), request("c", 1L)).iterator());
+
+            // Then
+            assertThat(response.getCreated()).isEqualTo(3);
+            assertThat(response.getFailed()).isZero();
+            assertThat(response.getResults()).extracting(BulkOrderResult::getOrderId).containsExactly(100L, 101L, 102L);
+            verify(orderRepository, times(2)).saveAll(anyList());
+            verify(menuRepository, times(1)).findAllById(Set.of(1L, 2L));
+            verify(orderRepository, never()).save(any(Order.class));
+        }
+
+        @Test
+        @DisplayName("성공: 잘못된 주문은 그 주문만 실패하고 나머지는 저장한다")
+        void createOrders_InvalidOrder_FailsOnlyThatOrder() {
+            // Given
+            when(menuRepository.findAllById(Set.of(1L, 999L))).thenReturn(List.of(americano));
+            stubSaveAll();
+
+            // When
+            BulkOrderResponse response = orderService.createOrders(List.of(
+                    request("a", 1L), request("b", 999L), request("", 1L)).iterator());
+
+            // Then
+            assertThat(response.getCreated()).isEqualTo(1);
+            assertThat(response.getFailed()).isEqualTo(2);
+            assertThat(response.getResults()).extracting(BulkOrderResult::getIndex).containsExactly(0, 1, 2);
+            assertThat(response.getResults().get(0).getOrderId()).isNotNull();
+            assertThat(response.getResults().get(1).getError()).contains("존재하지 않는 메뉴");
+            assertThat(response.getResults().get(2).getError()).contains("customerName");
+        }
+
+        @Test
+        @DisplayName("성공: 청크 저장이 실패하면 한 건씩 다시 저장해서 실패한 주문만 골라낸다")
+        void createOrders_ChunkFailure_FallsBackToOneByOne() {
+            // Given
+            when(menuRepository.findAllById(Set.of(1L))).thenReturn(List.of(americano));
+            when(orderRepository.saveAll(anyList())).thenThrow(new IllegalStateException("constraint violation"));
+            when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+                Order order = invocation.getArgument(0);
+                if (order.getCustomerName().equals("bad")) throw new IllegalStateException("constraint violation");
+                ReflectionTestUtils.setField(order, "id", nextId++);
+                return order;
+            });
+
+            // When
+            BulkOrderResponse response = orderService.createOrders(List.of(
+                    request("good", 1L), request("bad", 1L)).iterator());
+
+            // Then
+            assertThat(response.getCreated()).isEqualTo(1);
+            assertThat(response.getResults().get(0).getOrderId()).isEqualTo(100L);
+            assertThat(response.getResults().get(1).getError()).contains("constraint violation");
+        }
+
+        @Test
+        @DisplayName("실패: 본문을 더 읽을 수 없으면 이미 읽은 주문까지만 저장한다")
+        void createOrders_ReadError_StopsReading() {
+            // Given
+            when(menuRepository.findAllById(Set.of(1L))).thenReturn(List.of(americano));
+            stubSaveAll();
+            Iterator<OrderCreateRequest> requests = new Iterator<>() {
+                private int read;
+
+                @Override
+                public boolean hasNext() {
+                    if (read == 1) throw new IllegalArgumentException("Unexpected character");
+                    return true;
+                }
+
+                @Override
+                public OrderCreateRequest next() {
+                    read++;
+                    return request("a", 1L);
+                }
+            };
+
+            // When
+            BulkOrderResponse response = orderService.createOrders(requests);
+
+            // Then
+            assertThat(response.getCreated()).isEqualTo(1);
+            assertThat(response.getFailed()).isEqualTo(1);
+            assertThat(response.getResults().get(1).getError()).contains("Unexpected character");
+        }
+    }
+
     @Nested
     @DisplayName("주문 조회")
     class getOrder{
@@ -182,6 +462,30 @@ public class OrderServiceTest {
             verify(orderRepository, times(1)).findByIdWithItems(1L);
         }
 
+        @Test
+        @DisplayName("성공: 두 번째 조회는 공유 캐시에서 읽는다")
+        void getOrder_Twice_ServedFromCache() {
+            // Given
+            Order order = Order.builder()
+                    .customerName("홍길동")
+                    .build();
+            order.addOrderItem(americano, 2);
+            ReflectionTestUtils.setField(order, "id", 1L);
+
+            when(orderRepository.findByIdWithItems(1L)).thenReturn(order);
+
+            // When
+            orderService.getOrder(1L);
+            OrderResponse response = orderService.getOrder(1L);
+
+            // Then
+            assertThat(response.getId()).isEqualTo(1L);
+            assertThat(response.getOrderItems()).hasSize(1);
+            assertThat(response.getOrderItems().get(0).getSubtotal()).isEqualTo(2000);
+            assertThat(response.getOrderedAt()).isEqualTo(order.getOrderedAt());
+            verify(orderRepository, times(1)).findByIdWithItems(1L);
+        }
+
         @Test
         @DisplayName("실패: 존재하지 않는 주문")
         void getOrder_WithNonExistentId_ThrowsException() {
@@ -206,15 +510,51 @@ public class OrderServiceTest {
                     .customerName("홍길동")
                     .build();
 
-            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-            when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(orderRepository.findByIdWithItems(1L)).thenReturn(order);
+            when(orderRepository.compareAndSetStatus(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED)).thenReturn(1);
 
             // When
             OrderResponse response = orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED);
 
             // Then
             assertThat(response.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
-            verify(orderRepository, times(1)).save(order);
+            verify(orderRepository, times(1)).compareAndSetStatus(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+            verify(orderRepository, never()).save(any(Order.class));
+            verify(orderEventBroadcaster).publish(argThat(event -> event.getType() == OrderEvent.Type.STATUS_CHANGED
+                    && event.getPreviousStatus() == OrderStatus.PENDING && event.getStatus() == OrderStatus.CONFIRMED));
+            verify(orderOutbox).append(argThat(event -> event.getType() == OrderEvent.Type.STATUS_CHANGED));
+            assertThat(meterRegistry.get("order.status.transitions")
+                    .tag("from", "PENDING").tag("to", "CONFIRMED").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("order.service")
+                    .tag("operation", "update_status").tag("outcome", "success").timer().count()).isEqualTo(1);
+            verify(salesAggregator).recordTransition(order, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        }
+
+        @Test
+        @DisplayName("성공: 트랜잭션 안에서 바꾸면 주문 캐시는 커밋된 뒤에 제거")
+        void updateOrderStatus_EvictsCacheAfterCommit() {
+            // Given
+            Order order = Order.builder()
+                    .customerName("홍길동")
+                    .build();
+            ReflectionTestUtils.setField(order, "id", 1L);
+            orderResponseCache.put(OrderResponse.from(order));
+
+            when(orderRepository.findByIdWithItems(1L)).thenReturn(order);
+            when(orderRepository.compareAndSetStatus(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED)).thenReturn(1);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // When
+                orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED);
+
+                // Then (커밋 전에는 그대로, 커밋 후 제거)
+                assertThat(orderResponseCache.get(1L)).isNotNull();
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+                assertThat(orderResponseCache.get(1L)).isNull();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
         }
 
         @Test
@@ -225,8 +565,8 @@ public class OrderServiceTest {
                     .customerName("홍길동")
                     .build();
 
-            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-            when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(orderRepository.findByIdWithItems(1L)).thenReturn(order);
+            when(orderRepository.compareAndSetStatus(eq(1L), any(OrderStatus.class), any(OrderStatus.class))).thenReturn(1);
 
             // When & Then
             OrderResponse response1 = orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED);
@@ -247,14 +587,19 @@ public class OrderServiceTest {
                     .customerName("홍길동")
                     .build();
 
-            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+            when(orderRepository.findByIdWithItems(1L)).thenReturn(order);
 
             // When & Then
             assertThatThrownBy(() -> orderService.updateOrderStatus(1L, OrderStatus.COMPLETED))
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessageContaining("주문 상태를");
 
-            verify(orderRepository, never()).save(any(Order.class));
+            verify(orderRepository, never()).compareAndSetStatus(anyLong(), any(), any());
+            assertThat(meterRegistry.get("order.status.transitions.rejected")
+                    .tag("from", "PENDING").tag("to", "COMPLETED").tag("reason", "invalid_transition")
+                    .counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("order.service")
+                    .tag("operation", "update_status").tag("outcome", "error").timer().count()).isEqualTo(1);
         }
 
         @Test
@@ -268,11 +613,164 @@ public class OrderServiceTest {
             order.updateStatus(OrderStatus.PREPARING);
             order.updateStatus(OrderStatus.COMPLETED);
 
-            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+            when(orderRepository.findByIdWithItems(1L)).thenReturn(order);
 
             // When & Then
             assertThatThrownBy(() -> orderService.updateOrderStatus(1L, OrderStatus.PENDING))
                     .isInstanceOf(IllegalStateException.class);
         }
+
+        @Test
+        @DisplayName("실패: 읽은 뒤 다른 요청이 먼저 상태를 바꿨으면 덮어쓰지 않고 충돌")
+        void updateOrderStatus_ConcurrentChange_Conflict() {
+            // Given
+            Order order = Order.builder()
+                    .customerName("홍길동")
+                    .build();
+
+            when(orderRepository.findByIdWithItems(1L)).thenReturn(order);
+            //다른 바리스타가 먼저 CANCELLED 로 바꿔서 조건부 UPDATE 가 0건
+            when(orderRepository.compareAndSetStatus(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED)).thenReturn(0);
+
+            // When & Then
+            assertThatThrownBy(() -> orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED))
+                    .isInstanceOf(OrderStatusConflictException.class);
+            assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
+            verify(orderEventBroadcaster, never()).publish(any());
+        }
+
+        @Test
+        @DisplayName("실패: 클라이언트가 알고 있는 상태와 실제 상태가 다르면 충돌")
+        void updateOrderStatus_ExpectedStatusMismatch_Conflict() {
+            // Given
+            Order order = Order.builder()
+                    .customerName("홍길동")
+                    .build();
+            order.updateStatus(OrderStatus.CANCELLED);
+
+            when(orderRepository.findByIdWithItems(1L)).thenReturn(order);
+
+            // When & Then
+            assertThatThrownBy(() -> orderService.updateOrderStatus(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED))
+                    .isInstanceOf(OrderStatusConflictException.class);
+            verify(orderRepository, never()).compareAndSetStatus(anyLong(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("주문 상태 일괄 변경")
+    class UpdateOrderStatuses {
+
+        @Test
+        @DisplayName("성공: 청크마다 상태를 한 번에 읽고, 전환 가능한 주문만 조건부 UPDATE 로 변경")
+        void updateOrderStatuses_MixedResults() {
+            // Given (청크 크기 2, 중복 id 는 한 번만 처리, 완료는 매출 집계가 걸려서 잠그고 읽는다)
+            when(orderRepository.findAllByIdInForUpdate(List.of(1L, 2L))).thenReturn(List.of(
+                    orderWithStatus(1L, OrderStatus.PREPARING),
+                    orderWithStatus(2L, OrderStatus.PENDING)));
+            when(orderRepository.findAllByIdInForUpdate(List.of(3L, 4L))).thenReturn(List.of(
+                    orderWithStatus(3L, OrderStatus.PREPARING)));
+            when(orderRepository.findAllWithItemsByIdIn(Set.of(1L))).thenReturn(List.of(orderWithStatus(1L, OrderStatus.COMPLETED)));
+            when(orderRepository.findAllWithItemsByIdIn(Set.of(3L))).thenReturn(List.of(orderWithStatus(3L, OrderStatus.COMPLETED)));
+            when(orderRepository.compareAndSetStatuses(List.of(1L), OrderStatus.PREPARING, OrderStatus.COMPLETED)).thenReturn(1);
+            when(orderRepository.compareAndSetStatuses(List.of(3L), OrderStatus.PREPARING, OrderStatus.COMPLETED)).thenReturn(1);
+
+            // When
+            BulkStatusUpdateResponse response = orderService.updateOrderStatuses(List.of(1L, 2L, 3L, 4L, 1L), OrderStatus.COMPLETED);
+
+            // Then
+            assertThat(response.getUpdated()).isEqualTo(2);
+            assertThat(response.getRejected()).isEqualTo(2);
+            assertThat(response.getResults()).extracting(BulkStatusUpdateResult::getOrderId)
+                    .containsExactly(1L, 2L, 3L, 4L);
+            assertThat(response.getResults()).extracting(BulkStatusUpdateResult::isSuccess)
+                    .containsExactly(true, false, true, false);
+            assertThat(response.getResults().get(0).getPreviousStatus()).isEqualTo(OrderStatus.PREPARING);
+            assertThat(response.getResults().get(1).getError()).contains("주문 상태를");
+            assertThat(response.getResults().get(3).getError()).contains("찾을 수 없습니다");
+
+            //청크마다 트랜잭션 한 번, 엔티티를 저장하지 않고 매출 집계는 청크마다 한 번 증감
+            verify(transactionManager, times(2)).getTransaction(any());
+            verify(orderRepository, never()).findById(anyLong());
+            verify(orderRepository, never()).save(any(Order.class));
+            verify(orderRepository, never()).findStatusesByIdIn(anyList());
+            verify(salesAggregator, times(2)).apply(argThat(delta -> !delta.isEmpty()));
+        }
+
+        @Test
+        @DisplayName("성공: 현재 상태가 같은 주문들은 UPDATE 한 문장으로 변경")
+        void updateOrderStatuses_GroupedByCurrentStatus() {
+            // Given
+            ReflectionTestUtils.setField(orderService, "bulkChunkSize", 100);
+            when(orderRepository.findAllByIdInForUpdate(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                    orderWithStatus(1L, OrderStatus.PENDING),
+                    orderWithStatus(2L, OrderStatus.CONFIRMED),
+                    orderWithStatus(3L, OrderStatus.PENDING)));
+            when(orderRepository.compareAndSetStatuses(List.of(1L, 3L), OrderStatus.PENDING, OrderStatus.CANCELLED)).thenReturn(2);
+            when(orderRepository.compareAndSetStatuses(List.of(2L), OrderStatus.CONFIRMED, OrderStatus.CANCELLED)).thenReturn(1);
+
+            // When
+            BulkStatusUpdateResponse response = orderService.updateOrderStatuses(List.of(1L, 2L, 3L), OrderStatus.CANCELLED);
+
+            // Then
+            assertThat(response.getUpdated()).isEqualTo(3);
+            verify(orderRepository, times(2)).compareAndSetStatuses(anyList(), any(), any());
+            verify(orderRepository, times(1)).findAllByIdInForUpdate(anyList());
+        }
+
+        @Test
+        @DisplayName("실패: 읽은 뒤 다른 요청이 먼저 바꾼 주문만 거절")
+        void updateOrderStatuses_ConcurrentChange_RejectsOnlyChangedOrder() {
+            // Given
+            when(orderRepository.findStatusesByIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(
+                            new OrderStatusView(1L, OrderStatus.CONFIRMED),
+                            new OrderStatusView(2L, OrderStatus.CONFIRMED)))
+                    //UPDATE 직후 다시 읽으면 2번은 그 사이에 취소되어 있다
+                    .thenReturn(List.of(
+                            new OrderStatusView(1L, OrderStatus.PREPARING),
+                            new OrderStatusView(2L, OrderStatus.CANCELLED)));
+            when(orderRepository.compareAndSetStatuses(List.of(1L, 2L), OrderStatus.CONFIRMED, OrderStatus.PREPARING)).thenReturn(1);
+
+            // When
+            BulkStatusUpdateResponse response = orderService.updateOrderStatuses(List.of(1L, 2L), OrderStatus.PREPARING);
+
+            // Then
+            assertThat(response.getResults()).extracting(BulkStatusUpdateResult::isSuccess)
+                    .containsExactly(true, false);
+            assertThat(response.getResults().get(1).getPreviousStatus()).isEqualTo(OrderStatus.CANCELLED);
+            assertThat(response.getResults().get(1).getError()).contains("다른 요청이 먼저");
+        }
+
+        @Test
+        @DisplayName("성공: 다른 요청이 같은 상태로 먼저 바꿔서 누가 바꿨는지 모르면 잠그고 다시 처리, 실제로 바꾼 주문만 이벤트를 남긴다")
+        void updateOrderStatuses_SameTargetRace_RetriesWithLock() {
+            // Given
+            when(orderRepository.findStatusesByIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(
+                            new OrderStatusView(1L, OrderStatus.CONFIRMED),
+                            new OrderStatusView(2L, OrderStatus.CONFIRMED)))
+                    //UPDATE 는 한 건인데 다시 읽으면 둘 다 준비 중 (2번은 다른 요청이 바꿨다)
+                    .thenReturn(List.of(
+                            new OrderStatusView(1L, OrderStatus.PREPARING),
+                            new OrderStatusView(2L, OrderStatus.PREPARING)));
+            when(orderRepository.compareAndSetStatuses(List.of(1L, 2L), OrderStatus.CONFIRMED, OrderStatus.PREPARING)).thenReturn(1);
+            //롤백 후 잠그고 읽으면 1번은 그대로, 2번은 다른 요청이 바꾼 상태
+            when(orderRepository.findAllByIdInForUpdate(List.of(1L, 2L))).thenReturn(List.of(
+                    orderWithStatus(1L, OrderStatus.CONFIRMED),
+                    orderWithStatus(2L, OrderStatus.PREPARING)));
+            when(orderRepository.compareAndSetStatuses(List.of(1L), OrderStatus.CONFIRMED, OrderStatus.PREPARING)).thenReturn(1);
+
+            // When
+            BulkStatusUpdateResponse response = orderService.updateOrderStatuses(List.of(1L, 2L), OrderStatus.PREPARING);
+
+            // Then
+            assertThat(response.getResults()).extracting(BulkStatusUpdateResult::isSuccess)
+                    .containsExactly(true, false);
+            verify(transactionManager, times(1)).rollback(any());
+            verify(orderOutbox, times(1)).append(argThat(event -> event.getOrderId() == 1L));
+            assertThat(meterRegistry.get("order.status.transitions")
+                    .tag("from", "CONFIRMED").tag("to", "PREPARING").counter().count()).isEqualTo(1);
+        }
     }
 }
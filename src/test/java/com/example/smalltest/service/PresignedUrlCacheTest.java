@@ -0,0 +1,82 @@
+package com.example.smalltest.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Pre-signed URL 캐시")
+class PresignedUrlCacheTest {
+
+    private S3Presigner s3Presigner;
+
+    @BeforeEach
+    void setUp() {
+        //서명은 로컬에서 계산되므로 실제 S3 연결 없이 동작
+        s3Presigner = spy(S3Presigner.builder()
+                .region(Region.AP_NORTHEAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Presigner.close();
+    }
+
+    @Test
+    @DisplayName("성공: 유효 시간이 충분히 남았으면 같은 URL 을 재사용한다")
+    void get_ReusesUrl() {
+        PresignedUrlCache cache = new PresignedUrlCache(s3Presigner, "bucket", 100, Duration.ofMinutes(3),
+                new SimpleMeterRegistry());
+
+        String first = cache.get("a.png", Duration.ofMinutes(10));
+        String second = cache.get("a.png", Duration.ofMinutes(10));
+        String otherDuration = cache.get("a.png", Duration.ofMinutes(20));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(otherDuration).isNotEqualTo(first);
+        verify(s3Presigner, times(2)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+
+    @Test
+    @DisplayName("성공: 남은 유효 시간이 기준보다 짧으면 새로 발급한다")
+    void get_ShortLived_NotReused() {
+        PresignedUrlCache cache = new PresignedUrlCache(s3Presigner, "bucket", 100, Duration.ofMinutes(3),
+                new SimpleMeterRegistry());
+
+        cache.get("a.png", Duration.ofMinutes(1));
+        cache.get("a.png", Duration.ofMinutes(1));
+
+        verify(s3Presigner, times(2)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+
+    @Test
+    @DisplayName("성공: 여러 키를 한 번에 발급하고 요청 순서대로 반환한다")
+    void getAll_Batch() {
+        PresignedUrlCache cache = new PresignedUrlCache(s3Presigner, "bucket", 100, Duration.ofMinutes(3),
+                new SimpleMeterRegistry());
+        String cached = cache.get("b.png", Duration.ofMinutes(10));
+
+        Map<String, String> urls = cache.getAll(List.of("c.png", "b.png", "a.png"), Duration.ofMinutes(10));
+
+        assertThat(urls.keySet()).containsExactly("c.png", "b.png", "a.png");
+        assertThat(urls.get("b.png")).isEqualTo(cached);
+        assertThat(urls.get("a.png")).contains("a.png").contains("X-Amz-Signature");
+        verify(s3Presigner, times(3)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+}
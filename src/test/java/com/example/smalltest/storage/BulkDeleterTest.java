@@ -0,0 +1,162 @@
+package com.example.smalltest.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("S3 일괄 삭제")
+class BulkDeleterTest {
+
+    private static List<String> keys(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "orders/" + i + ".png").toList();
+    }
+
+    private static List<String> keysOf(DeleteObjectsRequest request) {
+        return request.delete().objects().stream().map(ObjectIdentifier::key).toList();
+    }
+
+    private static S3Error error(String key, String code) {
+        return S3Error.builder().key(key).code(code).message(code).build();
+    }
+
+    private static BulkDeleter deleter(Function<DeleteObjectsRequest, CompletableFuture<DeleteObjectsResponse>> deleteObjects,
+                                       int parallelism) {
+        return new BulkDeleter("bucket", deleteObjects, parallelism, 3, Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("성공: 1000개를 넘는 키는 1000개씩 나눠서 삭제한다")
+    void delete_SplitsIntoChunks() {
+        // Given
+        List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+        BulkDeleter deleter = deleter(request -> {
+            assertThat(request.delete().quiet()).isTrue();
+            chunkSizes.add(request.delete().objects().size());
+            return CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build());
+        }, 4);
+
+        // When
+        BulkDeleteResult result = deleter.delete(keys(2500));
+
+        // Then
+        assertThat(chunkSizes).containsExactlyInAnyOrder(1000, 1000, 500);
+        assertThat(result.deleted()).hasSize(2500);
+        assertThat(result.isComplete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("성공: 일시적인 오류가 난 키만 다시 보낸다")
+    void delete_RetriesOnlyFailedKeys() {
+        // Given
+        List<List<String>> requests = new CopyOnWriteArrayList<>();
+        BulkDeleter deleter = deleter(request -> {
+            List<String> keys = keysOf(request);
+            requests.add(keys);
+            DeleteObjectsResponse.Builder response = DeleteObjectsResponse.builder();
+            if (requests.size() == 1) response.errors(error("orders/1.png", "SlowDown"), error("orders/2.png", "AccessDenied"));
+            return CompletableFuture.completedFuture(response.build());
+        }, 1);
+
+        // When
+        BulkDeleteResult result = deleter.delete(keys(5));
+
+        // Then
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1)).containsExactly("orders/1.png");
+        assertThat(result.deleted()).containsExactlyInAnyOrder("orders/0.png", "orders/1.png", "orders/3.png", "orders/4.png");
+        assertThat(result.failed()).containsOnlyKeys("orders/2.png");
+    }
+
+    @Test
+    @DisplayName("실패: 요청 자체가 계속 실패하면 최대 시도 후 청크 전체를 실패로 돌려준다")
+    void delete_RequestFailure_ReportsWholeChunk() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        BulkDeleter deleter = deleter(request -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    SdkClientException.create("connection reset"));
+        }, 2);
+
+        // When
+        BulkDeleteResult result = deleter.delete(keys(3));
+
+        // Then
+        assertThat(calls).hasValue(3);
+        assertThat(result.deleted()).isEmpty();
+        assertThat(result.failed()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("성공: 동시에 보내는 요청 수는 parallelism 을 넘지 않는다")
+    void delete_BoundsParallelism() {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger running = new AtomicInteger();
+        Set<Integer> observed = ConcurrentHashMap.newKeySet();
+        BulkDeleter deleter = deleter(request -> CompletableFuture.supplyAsync(() -> {
+            observed.add(running.incrementAndGet());
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return DeleteObjectsResponse.builder().build();
+        }, executor), 2);
+
+        try {
+            // When
+            BulkDeleteResult result = deleter.delete(keys(10_000));
+
+            // Then
+            assertThat(result.deleted()).hasSize(10_000);
+            assertThat(Collections.max(observed)).isLessThanOrEqualTo(2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("실패: 재시도 대기 중 인터럽트되면 던지지 않고 남은 키를 실패로 반환한다")
+    void delete_InterruptedDuringBackoff_ReportsRemainingAsFailed() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        BulkDeleter deleter = new BulkDeleter("bucket", request -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(DeleteObjectsResponse.builder()
+                    .errors(error("orders/1.png", "SlowDown")).build());
+        }, 1, 3, Duration.ofSeconds(10));
+
+        // When
+        Thread.currentThread().interrupt();
+        BulkDeleteResult result;
+        try {
+            result = deleter.delete(keys(3));
+        } finally {
+            // Then (인터럽트 상태는 유지)
+            assertThat(Thread.interrupted()).isTrue();
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(result.deleted()).containsExactly("orders/0.png", "orders/2.png");
+        assertThat(result.failed()).containsOnlyKeys("orders/1.png");
+        assertThat(result.failed().get("orders/1.png")).startsWith("SlowDown").contains("인터럽트");
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.smalltest.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("S3 일괄 존재 확인")
+class BulkExistenceCheckerTest {
+
+    private static final S3BulkOptions OPTIONS = new S3BulkOptions(4, 3, Duration.ZERO,
+            4, 10, 5, Duration.ofMinutes(5), Duration.ofSeconds(30), 1000);
+
+    //버킷에 실제로 있는 객체
+    private final Set<String> bucket = Set.of("a.png", "orders/0.png", "orders/2.png", "orders/4.png");
+    private final AtomicInteger heads = new AtomicInteger();
+    private final AtomicInteger lists = new AtomicInteger();
+    private final List<ListObjectsV2Request> listRequests = new ArrayList<>();
+
+    private BulkExistenceChecker checker() {
+        return new BulkExistenceChecker("bucket",
+                request -> {
+                    heads.incrementAndGet();
+                    if (request.key().equals("forbidden.png")) {
+                        return CompletableFuture.failedFuture(S3Exception.builder().statusCode(403).message("denied").build());
+                    }
+                    if (!bucket.contains(request.key())) {
+                        return CompletableFuture.failedFuture(S3Exception.builder().statusCode(404).build());
+                    }
+                    return CompletableFuture.completedFuture(HeadObjectResponse.builder().build());
+                },
+                request -> {
+                    lists.incrementAndGet();
+                    listRequests.add(request);
+                    List<S3Object> contents = bucket.stream()
+                            .filter(key -> key.startsWith(request.prefix()))
+                            .filter(key -> request.startAfter() == null || key.compareTo(request.startAfter()) > 0)
+                            .sorted()
+                            .map(key -> S3Object.builder().key(key).build())
+                            .toList();
+                    return CompletableFuture.completedFuture(ListObjectsV2Response.builder()
+                            .contents(contents)
+                            .isTruncated(false)
+                            .build());
+                },
+                OPTIONS, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("성공: 키가 적으면 HEAD 로 확인하고, 404 가 아닌 오류는 failed 로 돌려준다")
+    void check_FewKeys_UsesHead() {
+        // When
+        ExistenceResult result = checker().check(List.of("a.png", "b.png", "forbidden.png"));
+
+        // Then
+        assertThat(heads).hasValue(3);
+        assertThat(lists).hasValue(0);
+        assertThat(result.existing()).containsExactly("a.png");
+        assertThat(result.missing()).containsExactly("b.png");
+        assertThat(result.failed()).containsOnlyKeys("forbidden.png");
+    }
+
+    @Test
+    @DisplayName("성공: 같은 prefix 의 키가 많으면 목록 조회 한 번으로 확인한다")
+    void check_ManyKeysInPrefix_UsesList() {
+        // Given
+        List<String> keys = IntStream.range(0, 20).mapToObj(i -> "orders/" + i + ".png").toList();
+
+        // When
+        ExistenceResult result = checker().check(keys);
+
+        // Then
+        assertThat(lists).hasValue(1);
+        assertThat(heads).hasValue(0);
+        assertThat(result.existing()).containsExactlyInAnyOrder("orders/0.png", "orders/2.png", "orders/4.png");
+        assertThat(result.missing()).hasSize(17);
+    }
+
+    @Test
+    @DisplayName("성공: 루트 키도 많으면 목록 조회, 요청한 가장 작은 키 바로 앞부터 읽는다")
+    void check_ManyRootKeys_UsesListFromSmallestKey() {
+        // Given
+        List<String> keys = new ArrayList<>(IntStream.range(0, 10).mapToObj(i -> "b" + i + ".png").toList());
+        keys.add("a.png");
+
+        // When
+        ExistenceResult result = checker().check(keys);
+
+        // Then
+        assertThat(lists).hasValue(1);
+        assertThat(heads).hasValue(0);
+        assertThat(listRequests.get(0).prefix()).isEmpty();
+        assertThat(listRequests.get(0).startAfter()).isEqualTo("a.pn");
+        assertThat(result.existing()).containsExactly("a.png");
+        assertThat(result.missing()).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("성공: 확인한 결과는 캐시해서 다시 S3 에 묻지 않는다 (없음 결과 포함)")
+    void check_CachesPositiveAndNegative() {
+        // Given
+        BulkExistenceChecker checker = checker();
+        checker.check(List.of("a.png", "b.png"));
+
+        // When
+        ExistenceResult result = checker.check(List.of("a.png", "b.png"));
+
+        // Then
+        assertThat(heads).hasValue(2);
+        assertThat(result.existing()).containsExactly("a.png");
+        assertThat(result.missing()).containsExactly("b.png");
+        assertThat(checker.exists("b.png")).isFalse();
+        assertThat(heads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("성공: 업로드 후 record 로 없음 캐시를 덮어쓴다")
+    void record_OverridesNegativeCache() {
+        // Given
+        BulkExistenceChecker checker = checker();
+        assertThat(checker.exists("b.png")).isFalse();
+
+        // When
+        checker.record("b.png", true);
+
+        // Then
+        assertThat(checker.exists("b.png")).isTrue();
+        assertThat(heads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("prefix 는 마지막 / 까지")
+    void prefixOf() {
+        assertThat(BulkExistenceChecker.prefixOf("orders/2024/a.png")).isEqualTo("orders/2024/");
+        assertThat(BulkExistenceChecker.prefixOf("a.png")).isEmpty();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.exception.AttachmentNotFoundException;
+import com.example.smalltest.exception.RangeNotSatisfiableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("인메모리 객체 저장소")
+class InMemoryObjectStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryObjectStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new InMemoryObjectStorage();
+        Path source = Files.writeString(tempDir.resolve("receipt.txt"), "0123456789");
+        storage.put("receipt.txt", source, "text/plain");
+    }
+
+    @Test
+    @DisplayName("성공: 전체 조회")
+    void get_Whole() throws IOException {
+        ObjectDownload download = storage.get("receipt.txt", null, null);
+
+        assertThat(download.isPartial()).isFalse();
+        assertThat(download.contentLength()).isEqualTo(10);
+        assertThat(new String(download.body().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("0123456789");
+    }
+
+    @Test
+    @DisplayName("성공: Range 요청은 해당 범위만 반환한다")
+    void get_Range() throws IOException {
+        ObjectDownload download = storage.get("receipt.txt", "bytes=2-4", null);
+
+        assertThat(download.contentRange()).isEqualTo("bytes 2-4/10");
+        assertThat(download.contentLength()).isEqualTo(3);
+        assertThat(new String(download.body().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("234");
+
+        ObjectDownload suffix = storage.get("receipt.txt", "bytes=-3", null);
+        assertThat(new String(suffix.body().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("789");
+    }
+
+    @Test
+    @DisplayName("성공: ETag 가 같으면 본문 없이 notModified")
+    void get_IfNoneMatch() {
+        String eTag = storage.get("receipt.txt", null, null).eTag();
+
+        ObjectDownload download = storage.get("receipt.txt", null, eTag);
+
+        assertThat(download.notModified()).isTrue();
+        assertThat(download.body()).isNull();
+    }
+
+    @Test
+    @DisplayName("실패: 범위를 벗어난 Range, 없는 객체")
+    void get_Invalid() {
+        assertThatThrownBy(() -> storage.get("receipt.txt", "bytes=20-30", null))
+                .isInstanceOf(RangeNotSatisfiableException.class);
+        assertThatThrownBy(() -> storage.get("missing.txt", null, null))
+                .isInstanceOf(AttachmentNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("성공: 스트림 업로드, 존재 확인, 일괄 삭제")
+    void putStream_Exists_Delete() throws IOException {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+        storage.put("a.txt", new ByteArrayInputStream(content), content.length, "text/plain");
+
+        assertThat(storage.exists("a.txt")).isTrue();
+        assertThat(storage.get("a.txt").content()).isEqualTo(content);
+
+        storage.delete(List.of("a.txt", "receipt.txt"));
+
+        assertThat(storage.exists("a.txt")).isFalse();
+        assertThat(storage.exists("receipt.txt")).isFalse();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.smalltest.storage;
+
+import com.example.smalltest.exception.AttachmentNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("저장소 작업 지표")
+class MeteredObjectStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MeteredObjectStorage storage = new MeteredObjectStorage(new InMemoryObjectStorage(), meterRegistry);
+
+    private long timerCount(String operation, String outcome) {
+        return meterRegistry.get("s3.operation").tag("operation", operation).tag("outcome", outcome).timer().count();
+    }
+
+    private double bytes(String direction) {
+        return meterRegistry.get("s3.operation.bytes").tag("direction", direction).summary().totalAmount();
+    }
+
+    @Test
+    @DisplayName("성공: 비동기 업로드는 끝날 때 기록하고, 다운로드는 본문 크기를 기록한다")
+    void putAsyncAndGet_RecordsTimersAndBytes() throws IOException {
+        // Given
+        Path source = Files.writeString(tempDir.resolve("receipt.txt"), "0123456789");
+
+        // When
+        storage.putAsync("receipt.txt", source, "text/plain").join();
+        storage.get("receipt.txt", "bytes=0-3", null).body().close();
+
+        // Then
+        assertThat(timerCount("upload", "success")).isEqualTo(1);
+        assertThat(bytes("upload")).isEqualTo(10);
+        assertThat(timerCount("download", "success")).isEqualTo(1);
+        assertThat(bytes("download")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("실패: 엔진이 예외를 던지면 error 로 기록하고 그대로 던진다")
+    void get_Missing_RecordsError() {
+        assertThatThrownBy(() -> storage.get("missing.txt", null, null))
+                .isInstanceOf(AttachmentNotFoundException.class);
+        assertThat(timerCount("download", "error")).isEqualTo(1);
+        assertThat(bytes("download")).isZero();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.smalltest.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("S3 스트리밍 업로드")
+class S3StreamingUploaderTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @Mock
+    private S3Client s3Client;
+
+    private S3StreamingUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        uploader = new S3StreamingUploader(DataSize.ofMegabytes(5), DataSize.ofMegabytes(6), 2, 2, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploader.shutdown();
+    }
+
+    @Test
+    @DisplayName("성공: 임계값 이하의 파일은 PutObject 한 번으로 전송한다")
+    void upload_SmallFile_SinglePut() throws IOException {
+        // When
+        uploader.upload(s3Client, "bucket", "small.png", new ByteArrayInputStream(new byte[1024]), 1024, "image/png");
+
+        // Then
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+        assertThat(request.getValue().contentLength()).isEqualTo(1024L);
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("성공: 큰 파일은 파트로 나눠서 멀티파트 업로드한다")
+    void upload_LargeFile_Multipart() throws IOException {
+        // Given
+        int size = 12 * MB;
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> {
+                    UploadPartRequest part = invocation.getArgument(0);
+                    return UploadPartResponse.builder().eTag("etag-" + part.partNumber()).build();
+                });
+
+        // When
+        uploader.upload(s3Client, "bucket", "large.zip", new ByteArrayInputStream(new byte[size]), size, "application/zip");
+
+        // Then
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(complete.capture());
+        assertThat(complete.getValue().multipartUpload().parts())
+                .extracting(CompletedPart::partNumber)
+                .containsExactly(1, 2, 3);
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    @DisplayName("성공: 가상 스레드 모드에서는 파트를 가상 스레드에서 전송한다")
+    void upload_VirtualThreads_PartsOnVirtualThreads() throws IOException {
+        // Given
+        uploader.shutdown();
+        uploader = new S3StreamingUploader(DataSize.ofMegabytes(5), DataSize.ofMegabytes(6), 2, 2, true);
+        int size = 12 * MB;
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> {
+                    virtual.add(Thread.currentThread().isVirtual());
+                    UploadPartRequest part = invocation.getArgument(0);
+                    return UploadPartResponse.builder().eTag("etag-" + part.partNumber()).build();
+                });
+
+        // When
+        uploader.upload(s3Client, "bucket", "large.zip", new ByteArrayInputStream(new byte[size]), size, "application/zip");
+
+        // Then
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        assertThat(virtual).containsExactly(true);
+    }
+
+    @Test
+    @DisplayName("성공: 가상 스레드 모드에서도 파트 동시 전송 수는 part-concurrency 를 넘지 않는다")
+    void upload_VirtualThreads_LimitsPartConcurrency() throws IOException {
+        // Given (버퍼 2개, 동시 전송 1개)
+        uploader.shutdown();
+        uploader = new S3StreamingUploader(DataSize.ofMegabytes(5), DataSize.ofMegabytes(6), 2, 1, true);
+        int size = 12 * MB;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(50);
+                    running.decrementAndGet();
+                    UploadPartRequest part = invocation.getArgument(0);
+                    return UploadPartResponse.builder().eTag("etag-" + part.partNumber()).build();
+                });
+
+        // When
+        uploader.upload(s3Client, "bucket", "large.zip", new ByteArrayInputStream(new byte[size]), size, "application/zip");
+
+        // Then
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        assertThat(maxRunning).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("실패: 파트 업로드가 실패하면 멀티파트 업로드를 취소한다")
+    void upload_PartFailure_Aborts() {
+        // Given
+        int size = 12 * MB;
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().statusCode(500).message("boom").build());
+
+        // When & Then
+        assertThatThrownBy(() -> uploader.upload(s3Client, "bucket", "large.zip",
+                new ByteArrayInputStream(new byte[size]), size, "application/zip"))
+                .isInstanceOf(S3Exception.class);
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+}